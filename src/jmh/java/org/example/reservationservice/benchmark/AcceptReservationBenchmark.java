@@ -0,0 +1,65 @@
+package org.example.reservationservice.benchmark;
+
+import org.example.reservationservice.model.ReservationView;
+import org.example.reservationservice.service.ReservationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Every accept consumes one seeded PENDING reservation, so each iteration is a fixed batch of accepts and the
+ * accepted reservations are reset to PENDING before the next iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, batchSize = AcceptReservationBenchmark.ACCEPTS_PER_ITERATION)
+@Measurement(iterations = 5, batchSize = AcceptReservationBenchmark.ACCEPTS_PER_ITERATION)
+@Fork(1)
+public class AcceptReservationBenchmark {
+    static final int ACCEPTS_PER_ITERATION = 500;
+    private static final int CONTENDED_THREADS = 8;
+
+    @Param({"10000", "100000", "1000000", "10000000"})
+    public int slots;
+
+    private final AtomicInteger nextPending = new AtomicInteger();
+    private ConfigurableApplicationContext context;
+    private ReservationService reservationService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("accept");
+        BenchmarkApplication.seed(context, slots);
+        reservationService = context.getBean(ReservationService.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPendingReservations() {
+        BenchmarkApplication.resetAccepted(context);
+        nextPending.set(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ReservationView acceptReservation() {
+        return accept();
+    }
+
+    @Benchmark
+    @Threads(CONTENDED_THREADS)
+    public ReservationView acceptReservationContended() {
+        return accept();
+    }
+
+    private ReservationView accept() {
+        long pendingId = 2L * nextPending.getAndIncrement() + 1;
+        return reservationService.acceptReservation(pendingId, BenchmarkApplication.SLOT_STEP_IN_MINUTES);
+    }
+}
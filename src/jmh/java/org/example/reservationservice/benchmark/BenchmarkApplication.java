@@ -0,0 +1,77 @@
+package org.example.reservationservice.benchmark;
+
+import org.example.reservationservice.ReservationServiceApplication;
+import org.example.reservationservice.model.ScheduleSlot;
+import org.example.reservationservice.service.ReservationService;
+import org.example.reservationservice.service.ScheduleService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+final class BenchmarkApplication {
+    static final LocalDateTime FIRST_SLOT = LocalDateTime.of(2030, 1, 1, 0, 0);
+    static final int SLOT_STEP_IN_MINUTES = 15;
+
+    private static final int SEED_BATCH_SIZE = 10_000;
+    private static final int PENDING = 0;
+    private static final int ACCEPTED = 1;
+    private static final int REJECTED = 2;
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String databaseName) {
+        return new SpringApplicationBuilder(ReservationServiceApplication.class)
+                .logStartupInfo(false)
+                .run("--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=sa",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--server.port=0",
+                        "--logging.level.root=WARN");
+    }
+
+    static LocalDateTime slotTime(long slot) {
+        return FIRST_SLOT.plusMinutes(slot * SLOT_STEP_IN_MINUTES);
+    }
+
+    /**
+     * Seeds {@code slots} visible schedule slots and one reservation per slot. Reservation {@code i + 1} points at
+     * slot {@code i} and is PENDING for even {@code i}, REJECTED otherwise, so odd ids are the pending ones.
+     */
+    static void seed(ConfigurableApplicationContext context, int slots) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        for(int from = 0; from < slots; from += SEED_BATCH_SIZE) {
+            int to = Math.min(slots, from + SEED_BATCH_SIZE);
+            List<Object[]> schedules = new ArrayList<>(to - from);
+            List<Object[]> reservations = new ArrayList<>(to - from);
+            for(int i = from; i < to; i++) {
+                schedules.add(new Object[]{i + 1, ScheduleSlot.DEFAULT_RESOURCE_ID, Timestamp.valueOf(slotTime(i)), true, 0});
+                reservations.add(new Object[]{i + 1, ScheduleSlot.DEFAULT_RESOURCE_ID, "first" + i, "last" + i, "user" + i + "@example.org",
+                        "500100200", i % 2 == 0 ? PENDING : REJECTED, i + 1, 0});
+            }
+            jdbcTemplate.batchUpdate("insert into schedules (schedule_id, schedule_resource_id, schedule_time_start, schedule_is_visible, " +
+                    "schedule_version) values (?, ?, ?, ?, ?)", schedules);
+            jdbcTemplate.batchUpdate("insert into reservations (reservation_id, reservation_resource_id, reservation_first_name, " +
+                    "reservation_last_name, reservation_email, reservation_phone_number, reservation_status, reservation_schedule_slot, " +
+                    "reservation_version) values (?, ?, ?, ?, ?, ?, ?, ?, ?)", reservations);
+        }
+        jdbcTemplate.execute("alter sequence schedules_seq restart with " + (slots + 100));
+        jdbcTemplate.execute("alter sequence reservations_seq restart with " + (slots + 100));
+        context.getBean(ScheduleService.class).rebuildAvailabilityIndex();
+    }
+
+    static void resetAccepted(ConfigurableApplicationContext context) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("update reservations set reservation_status = ?, duration_in_minutes = null where reservation_status = ?",
+                PENDING, ACCEPTED);
+        jdbcTemplate.update("update schedules set schedule_is_visible = true where schedule_is_visible = false");
+        context.getBean(ScheduleService.class).rebuildAvailabilityIndex();
+        context.getBean(ReservationService.class).rebuildAcceptedIndex();
+    }
+}
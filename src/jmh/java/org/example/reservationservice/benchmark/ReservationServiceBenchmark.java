@@ -0,0 +1,66 @@
+package org.example.reservationservice.benchmark;
+
+import org.example.reservationservice.model.CursorPage;
+import org.example.reservationservice.model.ReservationRequest;
+import org.example.reservationservice.model.ReservationView;
+import org.example.reservationservice.service.ReservationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservationServiceBenchmark {
+    private static final int HOT_SLOTS = 16;
+    private static final int CONTENDED_THREADS = 8;
+
+    @Param({"10000", "100000", "1000000", "10000000"})
+    public int slots;
+
+    private ConfigurableApplicationContext context;
+    private ReservationService reservationService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("reservations");
+        BenchmarkApplication.seed(context, slots);
+        reservationService = context.getBean(ReservationService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ReservationView saveReservation() {
+        return reservationService.saveReservation(request(ThreadLocalRandom.current().nextInt(slots)));
+    }
+
+    @Benchmark
+    @Threads(CONTENDED_THREADS)
+    public ReservationView saveReservationContended() {
+        return reservationService.saveReservation(request(ThreadLocalRandom.current().nextInt(HOT_SLOTS)));
+    }
+
+    @Benchmark
+    public CursorPage<ReservationView> findAllByStatus() {
+        return reservationService.findAllByStatus("PENDING", ThreadLocalRandom.current().nextLong(slots), 50);
+    }
+
+    @Benchmark
+    @Threads(CONTENDED_THREADS)
+    public CursorPage<ReservationView> findAllByStatusContended() {
+        return reservationService.findAllByStatus("PENDING", ThreadLocalRandom.current().nextLong(slots), 50);
+    }
+
+    private ReservationRequest request(int slot) {
+        return new ReservationRequest(null, "first", "last", "user@example.org", "500100200", BenchmarkApplication.slotTime(slot));
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.reservationservice.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.example.reservationservice.service.ScheduleAvailabilityCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfiguration {
+
+    @Bean
+    public CacheManager cacheManager(@Value("${reservation.cache.availability.maximum-size:1000}") long maximumSize,
+                                     @Value("${reservation.cache.availability.time-to-live:5m}") Duration timeToLive) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(ScheduleAvailabilityCache.CACHE_NAME);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats());
+        return cacheManager;
+    }
+}
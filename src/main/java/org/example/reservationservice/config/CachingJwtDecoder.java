@@ -0,0 +1,49 @@
+package org.example.reservationservice.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Remembers tokens that already passed signature and claim validation, so a client repeating the same token only
+ * pays for a map lookup. A cached token is still rejected once it expires.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+    private static final long MAXIMUM_CACHED_TOKENS = 10_000;
+
+    private final JwtDecoder delegate;
+    private final Clock clock;
+    private final Cache<String, Jwt> verified;
+
+    public CachingJwtDecoder(JwtDecoder delegate, Duration timeToLive) {
+        this(delegate, timeToLive, Clock.systemUTC());
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, Duration timeToLive, Clock clock) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.verified = Caffeine.newBuilder()
+                .expireAfterWrite(timeToLive)
+                .maximumSize(MAXIMUM_CACHED_TOKENS)
+                .build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        Jwt jwt = verified.getIfPresent(token);
+        if(jwt != null) {
+            if(jwt.getExpiresAt() == null || jwt.getExpiresAt().isAfter(clock.instant())) {
+                return jwt;
+            }
+            verified.invalidate(token);
+        }
+        jwt = delegate.decode(token);
+        verified.put(token, jwt);
+        return jwt;
+    }
+}
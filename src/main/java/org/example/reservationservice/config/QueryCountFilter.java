@@ -0,0 +1,32 @@
+package org.example.reservationservice.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+public class QueryCountFilter extends OncePerRequestFilter {
+    private final DistributionSummary queriesPerRequest;
+
+    public QueryCountFilter(MeterRegistry meterRegistry) {
+        queriesPerRequest = DistributionSummary.builder("http.server.requests.queries")
+                .description("JDBC statements executed per HTTP request")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        QueryCountInspector.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            queriesPerRequest.record(QueryCountInspector.current());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.reservationservice.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class QueryCountInspector implements StatementInspector {
+    private static final ThreadLocal<int[]> QUERY_COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        QUERY_COUNT.get()[0]++;
+        return sql;
+    }
+
+    static void reset() {
+        QUERY_COUNT.get()[0] = 0;
+    }
+
+    static int current() {
+        return QUERY_COUNT.get()[0];
+    }
+}
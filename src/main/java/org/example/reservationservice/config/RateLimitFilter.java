@@ -0,0 +1,109 @@
+package org.example.reservationservice.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client token buckets for selected routes. A bucket is kept as a single theoretical arrival time (GCRA), so
+ * taking a token is one compare-and-set and buckets of idle clients can be evicted once they would be full again.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final long MAXIMUM_TRACKED_CLIENTS = 100_000;
+
+    private final List<Route> routes;
+    private final LongSupplier nanoClock;
+
+    public RateLimitFilter(List<RateLimitRule> rules) {
+        this(rules, System::nanoTime);
+    }
+
+    RateLimitFilter(List<RateLimitRule> rules, LongSupplier nanoClock) {
+        this.routes = rules.stream().map(Route::new).toList();
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        for(Route route : routes) {
+            if(route.matcher.matches(request)) {
+                long waitNanos = route.bucket(clientKey(request)).tryAcquire(nanoClock.getAsLong());
+                if(waitNanos > 0) {
+                    response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+                    response.getWriter().write("too many requests");
+                    return;
+                }
+                break;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? "user:" + principal.getName() : "address:" + request.getRemoteAddr();
+    }
+
+    private static final class Route {
+        private final RequestMatcher matcher;
+        private final long emissionIntervalNanos;
+        private final long burstNanos;
+        private final Cache<String, TokenBucket> buckets;
+
+        Route(RateLimitRule rule) {
+            matcher = AntPathRequestMatcher.antMatcher(rule.method(), rule.pattern());
+            emissionIntervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rule.tokensPerSecond()));
+            burstNanos = emissionIntervalNanos * rule.capacity();
+            buckets = Caffeine.newBuilder()
+                    .expireAfterAccess(Duration.ofNanos(burstNanos))
+                    .maximumSize(MAXIMUM_TRACKED_CLIENTS)
+                    .build();
+        }
+
+        TokenBucket bucket(String client) {
+            return buckets.get(client, key -> new TokenBucket(emissionIntervalNanos, burstNanos));
+        }
+    }
+
+    static final class TokenBucket {
+        private final long emissionIntervalNanos;
+        private final long burstNanos;
+        private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+        TokenBucket(long emissionIntervalNanos, long burstNanos) {
+            this.emissionIntervalNanos = emissionIntervalNanos;
+            this.burstNanos = burstNanos;
+        }
+
+        long tryAcquire(long now) {
+            while(true) {
+                long current = theoreticalArrival.get();
+                long next = (current == Long.MIN_VALUE || current - now < 0 ? now : current) + emissionIntervalNanos;
+                long wait = next - now - burstNanos;
+                if(wait > 0) {
+                    return wait;
+                }
+                if(theoreticalArrival.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package org.example.reservationservice.config;
+
+import org.springframework.http.HttpMethod;
+
+public record RateLimitRule(HttpMethod method, String pattern, long capacity, double tokensPerSecond) {
+}
@@ -0,0 +1,47 @@
+package org.example.reservationservice.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Set;
+
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    private static final long MAXIMUM_TRACKED_CLIENTS = 100_000;
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesFilter(Duration window) {
+        recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(MAXIMUM_TRACKED_CLIENTS)
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String client = clientKey(request);
+        ReplicaRoutingDataSource.pinToPrimary(recentWriters.getIfPresent(client) != null);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.pinToPrimary(false);
+            if(!SAFE_METHODS.contains(request.getMethod()) && response.getStatus() < 400) {
+                recentWriters.put(client, Boolean.TRUE);
+            }
+        }
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? "user:" + principal.getName() : "address:" + request.getRemoteAddr();
+    }
+}
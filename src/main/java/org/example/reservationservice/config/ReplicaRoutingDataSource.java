@@ -0,0 +1,42 @@
+package org.example.reservationservice.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections of read-only transactions to the replica and everything else to the primary. Has to sit behind
+ * a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, otherwise the connection is fetched
+ * before the transaction is marked read-only.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.<Object, Object>of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    static void pinToPrimary(boolean pinned) {
+        if(pinned) {
+            PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        } else {
+            PINNED_TO_PRIMARY.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if(TransactionSynchronizationManager.isCurrentTransactionReadOnly() && PINNED_TO_PRIMARY.get() == null) {
+            return Route.REPLICA;
+        }
+        return Route.PRIMARY;
+    }
+
+    private enum Route {
+        PRIMARY, REPLICA
+    }
+}
@@ -1,8 +1,15 @@
 package org.example.reservationservice.config;
 
+import org.example.reservationservice.config.exception.IdempotencyKeyMismatchException;
+import org.example.reservationservice.config.exception.IntakeQueueFullException;
+import org.example.reservationservice.config.exception.IntakeUnavailableException;
+import org.example.reservationservice.config.exception.ReservationConflictException;
 import org.example.reservationservice.config.exception.ReservationException;
 import org.example.reservationservice.config.exception.ScheduleException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -20,4 +27,36 @@ public class ReservationExceptionHandler {
     public String reservationExceptionHandler(ReservationException ex) {
         return ex.getMessage();
     }
+
+    @ExceptionHandler(ReservationConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public String reservationConflictExceptionHandler(ReservationConflictException ex) {
+        return ex.getMessage();
+    }
+
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    public String idempotencyKeyMismatchExceptionHandler(IdempotencyKeyMismatchException ex) {
+        return ex.getMessage();
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public String optimisticLockingFailureExceptionHandler(OptimisticLockingFailureException ex) {
+        return "reservation was modified concurrently";
+    }
+
+    @ExceptionHandler(IntakeQueueFullException.class)
+    public ResponseEntity<String> intakeQueueFullExceptionHandler(IntakeQueueFullException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
+    @ExceptionHandler(IntakeUnavailableException.class)
+    public ResponseEntity<String> intakeUnavailableExceptionHandler(IntakeUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
 }
@@ -1,28 +1,108 @@
 package org.example.reservationservice.config;
 
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.servletapi.SecurityContextHolderAwareRequestFilter;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Pattern;
 
 @Configuration
 public class SecurityConfiguration {
-
+    private static final int MINIMUM_SECRET_BYTES = 32;
+    private static final Pattern ENCODED_PASSWORD = Pattern.compile("^\\{.+}.*$");
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   @Value("${reservation.rate-limit.enabled:true}") boolean rateLimitEnabled,
+                                                   @Value("${reservation.rate-limit.reservations.capacity:10}") long reservationsCapacity,
+                                                   @Value("${reservation.rate-limit.reservations.tokens-per-second:1}") double reservationsTokensPerSecond,
+                                                   @Value("${reservation.rate-limit.schedules.capacity:60}") long schedulesCapacity,
+                                                   @Value("${reservation.rate-limit.schedules.tokens-per-second:20}") double schedulesTokensPerSecond) throws Exception {
         http.authorizeHttpRequests(auth ->
                 auth
-                        .requestMatchers(HttpMethod.POST, "/api/schedules").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/api/auth/token").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/api/schedules/**").authenticated()
                         .requestMatchers(HttpMethod.DELETE, "/api/schedules/**").authenticated()
                         .requestMatchers(HttpMethod.PATCH, "/api/reservations/**").authenticated()
-                        .requestMatchers(HttpMethod.GET, "/api/reservations").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/api/reservations/intake/*").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/reservations/**").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/api/schedules/export").authenticated()
                         .anyRequest().permitAll())
                 .httpBasic(Customizer.withDefaults())
+                .oauth2ResourceServer(resourceServer -> resourceServer.jwt(Customizer.withDefaults()))
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .csrf(AbstractHttpConfigurer::disable);
+        if(rateLimitEnabled) {
+            http.addFilterAfter(new RateLimitFilter(List.of(
+                    new RateLimitRule(HttpMethod.POST, "/api/reservations/**", reservationsCapacity, reservationsTokensPerSecond),
+                    new RateLimitRule(HttpMethod.GET, "/api/reservations/intake/*", schedulesCapacity, schedulesTokensPerSecond),
+                    new RateLimitRule(HttpMethod.GET, "/api/schedules/**", schedulesCapacity, schedulesTokensPerSecond))),
+                    SecurityContextHolderAwareRequestFilter.class);
+        }
         return http.build();
     }
+
+    @Bean
+    public InMemoryUserDetailsManager userDetailsService(SecurityProperties properties, ObjectProvider<PasswordEncoder> passwordEncoder) {
+        SecurityProperties.User user = properties.getUser();
+        if(user.isPasswordGenerated()) {
+            LogFactory.getLog(getClass()).warn("Using generated security password: " + user.getPassword());
+        }
+        String password = passwordEncoder.getIfAvailable() != null || ENCODED_PASSWORD.matcher(user.getPassword()).matches()
+                ? user.getPassword()
+                : "{noop}" + user.getPassword();
+        return new InMemoryUserDetailsManager(User.withUsername(user.getName())
+                .password(password)
+                .roles(user.getRoles().toArray(String[]::new))
+                .build());
+    }
+
+    @Bean
+    public SecretKey tokenSecretKey(@Value("${reservation.auth.token-secret:}") String secret) {
+        byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+        if(secret.isBlank()) {
+            bytes = new byte[MINIMUM_SECRET_BYTES];
+            new SecureRandom().nextBytes(bytes);
+        } else if(bytes.length < MINIMUM_SECRET_BYTES) {
+            throw new IllegalStateException("reservation.auth.token-secret must be at least " + MINIMUM_SECRET_BYTES + " bytes");
+        }
+        return new SecretKeySpec(bytes, "HmacSHA256");
+    }
+
+    @Bean
+    public JwtEncoder jwtEncoder(SecretKey tokenSecretKey) {
+        return new NimbusJwtEncoder(new ImmutableSecret<>(tokenSecretKey));
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(SecretKey tokenSecretKey,
+                                 @Value("${reservation.auth.verified-token-cache-time-to-live:5m}") Duration cacheTimeToLive) {
+        return new CachingJwtDecoder(NimbusJwtDecoder.withSecretKey(tokenSecretKey).macAlgorithm(MacAlgorithm.HS256).build(),
+                cacheTimeToLive);
+    }
 }
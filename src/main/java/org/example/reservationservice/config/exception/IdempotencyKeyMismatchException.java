@@ -0,0 +1,7 @@
+package org.example.reservationservice.config.exception;
+
+public class IdempotencyKeyMismatchException extends ReservationException{
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
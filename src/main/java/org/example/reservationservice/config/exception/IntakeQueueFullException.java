@@ -0,0 +1,14 @@
+package org.example.reservationservice.config.exception;
+
+public class IntakeQueueFullException extends RuntimeException{
+    private final long retryAfterSeconds;
+
+    public IntakeQueueFullException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.reservationservice.config.exception;
+
+public class ReservationConflictException extends ReservationException{
+    public ReservationConflictException(String message) {
+        super(message);
+    }
+}
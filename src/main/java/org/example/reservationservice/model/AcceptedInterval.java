@@ -0,0 +1,6 @@
+package org.example.reservationservice.model;
+
+import java.time.LocalDateTime;
+
+public record AcceptedInterval(Long reservationId, Long resourceId, LocalDateTime timeStart, Integer durationInMinutes) {
+}
@@ -0,0 +1,4 @@
+package org.example.reservationservice.model;
+
+public record AccessToken(String accessToken, String tokenType, long expiresIn) {
+}
@@ -0,0 +1,12 @@
+package org.example.reservationservice.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record AvailabilityDelta(long resourceId,
+                                @JsonFormat(pattern = "yyyy-MM-dd HH:mm") LocalDateTime from,
+                                @JsonFormat(pattern = "yyyy-MM-dd HH:mm") LocalDateTime to,
+                                List<ScheduleSlotView> slots) {
+}
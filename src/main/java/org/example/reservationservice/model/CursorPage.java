@@ -0,0 +1,6 @@
+package org.example.reservationservice.model;
+
+import java.util.List;
+
+public record CursorPage<T>(List<T> content, Long nextCursor) {
+}
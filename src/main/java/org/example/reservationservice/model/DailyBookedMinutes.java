@@ -0,0 +1,6 @@
+package org.example.reservationservice.model;
+
+import java.time.LocalDate;
+
+public record DailyBookedMinutes(LocalDate day, Long bookedMinutes) {
+}
@@ -0,0 +1,6 @@
+package org.example.reservationservice.model;
+
+import java.time.LocalDate;
+
+public record DailySlotUsage(LocalDate day, Long slots, Long unavailableSlots) {
+}
@@ -0,0 +1,9 @@
+package org.example.reservationservice.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+
+public record FreeWindow(@JsonFormat(pattern = "yyyy-MM-dd HH:mm") LocalDateTime timeStart,
+                         @JsonFormat(pattern = "yyyy-MM-dd HH:mm") LocalDateTime timeEnd) {
+}
@@ -0,0 +1,31 @@
+package org.example.reservationservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_created_at", columnList = "idempotency_created_at"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "idempotency_id_generator")
+    @SequenceGenerator(name = "idempotency_id_generator", sequenceName = "idempotency_keys_seq", allocationSize = 50)
+    @Column(name = "idempotency_id")
+    private Long id;
+    @Column(name = "idempotency_key", length = 64, unique = true, nullable = false)
+    private String idempotencyKey;
+    @Column(name = "idempotency_request_hash", length = 64)
+    private String requestHash;
+    @Column(name = "idempotency_reservation_id", nullable = false)
+    private Long reservationId;
+    @Column(name = "idempotency_created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,7 @@
+package org.example.reservationservice.model;
+
+public enum IntakeStatus {
+    QUEUED,
+    STORED,
+    FAILED
+}
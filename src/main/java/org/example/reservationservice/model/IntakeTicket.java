@@ -0,0 +1,4 @@
+package org.example.reservationservice.model;
+
+public record IntakeTicket(String trackingId, IntakeStatus status, Long reservationId, String message) {
+}
@@ -0,0 +1,57 @@
+package org.example.reservationservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@Table(name = "reservation_outbox", indexes = @Index(name = "idx_outbox_next_attempt_id", columnList = "outbox_next_attempt_at, outbox_id"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxMessage {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_id_generator")
+    @SequenceGenerator(name = "outbox_id_generator", sequenceName = "reservation_outbox_seq", allocationSize = 50)
+    @Column(name = "outbox_id")
+    private Long id;
+    @Column(name = "outbox_reservation_id")
+    private Long reservationId;
+    @Column(name = "outbox_reservation_status")
+    private ReservationStatus status;
+    @Column(name = "outbox_first_name")
+    private String firstName;
+    @Column(name = "outbox_last_name")
+    private String lastName;
+    @Column(name = "outbox_email")
+    private String email;
+    @Column(name = "outbox_phone_number")
+    private String phoneNumber;
+    @Column(name = "outbox_created_at")
+    private LocalDateTime createdAt;
+    @Column(name = "outbox_next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+    @Column(name = "outbox_attempts")
+    private int attempts;
+    @Column(name = "outbox_failed_at")
+    private LocalDateTime failedAt;
+
+    public static OutboxMessage of(Reservation reservation) {
+        LocalDateTime now = LocalDateTime.now();
+        return OutboxMessage.builder()
+                .reservationId(reservation.getId())
+                .status(reservation.getStatus())
+                .firstName(reservation.getFirstName())
+                .lastName(reservation.getLastName())
+                .email(reservation.getEmail())
+                .phoneNumber(reservation.getPhoneNumber())
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build();
+    }
+}
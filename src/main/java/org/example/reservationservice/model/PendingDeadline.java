@@ -0,0 +1,6 @@
+package org.example.reservationservice.model;
+
+import java.time.LocalDateTime;
+
+public record PendingDeadline(Long reservationId, LocalDateTime timeStart) {
+}
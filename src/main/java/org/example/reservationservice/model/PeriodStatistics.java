@@ -0,0 +1,6 @@
+package org.example.reservationservice.model;
+
+import java.time.LocalDate;
+
+public record PeriodStatistics(LocalDate start, long bookedMinutes, long slots, long unavailableSlots, double utilisation) {
+}
@@ -9,13 +9,14 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Data
-@Table(name="reservations")
+@Table(name="reservations", indexes = @Index(name = "idx_reservation_status_id", columnList = "reservation_status, reservation_id"))
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Reservation {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservation_id_generator")
+    @SequenceGenerator(name = "reservation_id_generator", sequenceName = "reservations_seq", allocationSize = 50)
     @Column(name = "reservation_id")
     private Long id;
     @Column(name = "reservation_first_name")
@@ -26,10 +27,15 @@ public class Reservation {
     private String email;
     @Column(name = "reservation_phone_number")
     private String phoneNumber;
+    @Column(name = "reservation_resource_id")
+    private Long resourceId;
     @Column(name = "reservation_status")
     private ReservationStatus status;
-    @ManyToOne(cascade = CascadeType.PERSIST)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "reservation_schedule_slot")
     private ScheduleSlot scheduleSlot;
     private Integer durationInMinutes;
+    @Version
+    @Column(name = "reservation_version")
+    private Long version;
 }
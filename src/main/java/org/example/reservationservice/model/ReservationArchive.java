@@ -0,0 +1,40 @@
+package org.example.reservationservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@Table(name = "reservations_archive", indexes = @Index(name = "idx_reservation_archive_resource_time_start", columnList = "reservation_resource_id, reservation_time_start"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationArchive {
+    @Id
+    @Column(name = "reservation_id")
+    private Long id;
+    @Column(name = "reservation_first_name")
+    private String firstName;
+    @Column(name = "reservation_last_name")
+    private String lastName;
+    @Column(name = "reservation_email")
+    private String email;
+    @Column(name = "reservation_phone_number")
+    private String phoneNumber;
+    @Column(name = "reservation_resource_id")
+    private Long resourceId;
+    @Column(name = "reservation_status")
+    private ReservationStatus status;
+    @Column(name = "reservation_schedule_slot")
+    private Long scheduleSlotId;
+    @Column(name = "reservation_time_start")
+    private LocalDateTime timeStart;
+    private Integer durationInMinutes;
+    @Column(name = "reservation_archived_at")
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,4 @@
+package org.example.reservationservice.model;
+
+public record ReservationBatchItem(Long id, ReservationDecision decision, Integer duration) {
+}
@@ -0,0 +1,9 @@
+package org.example.reservationservice.model;
+
+public enum ReservationBatchOutcome {
+    ACCEPTED,
+    REJECTED,
+    CONFLICT,
+    NOT_FOUND,
+    INVALID
+}
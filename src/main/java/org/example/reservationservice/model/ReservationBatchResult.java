@@ -0,0 +1,4 @@
+package org.example.reservationservice.model;
+
+public record ReservationBatchResult(Long id, ReservationBatchOutcome outcome, String message) {
+}
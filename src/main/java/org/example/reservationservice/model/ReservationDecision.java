@@ -0,0 +1,6 @@
+package org.example.reservationservice.model;
+
+public enum ReservationDecision {
+    ACCEPT,
+    REJECT
+}
@@ -0,0 +1,14 @@
+package org.example.reservationservice.model;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public record ReservationStatistics(long resourceId,
+                                    LocalDate from,
+                                    LocalDate to,
+                                    Map<ReservationStatus, Long> reservationsByStatus,
+                                    PeriodStatistics total,
+                                    List<PeriodStatistics> days,
+                                    List<PeriodStatistics> weeks) {
+}
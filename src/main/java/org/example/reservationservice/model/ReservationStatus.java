@@ -3,5 +3,7 @@ package org.example.reservationservice.model;
 public enum ReservationStatus {
     PENDING,
     ACCEPTED,
-    REJECTED
+    REJECTED,
+    CANCELLED,
+    EXPIRED
 }
@@ -0,0 +1,32 @@
+package org.example.reservationservice.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+
+public record ReservationView(Long id,
+                              Long resourceId,
+                              String firstName,
+                              String lastName,
+                              String email,
+                              String phoneNumber,
+                              ReservationStatus status,
+                              Long scheduleSlotId,
+                              @JsonFormat(pattern = "yyyy-MM-dd HH:mm") LocalDateTime timeStart,
+                              Integer durationInMinutes) {
+
+    public static ReservationView of(Reservation reservation) {
+        ScheduleSlot scheduleSlot = reservation.getScheduleSlot();
+        return new ReservationView(
+                reservation.getId(),
+                reservation.getResourceId(),
+                reservation.getFirstName(),
+                reservation.getLastName(),
+                reservation.getEmail(),
+                reservation.getPhoneNumber(),
+                reservation.getStatus(),
+                scheduleSlot == null ? null : scheduleSlot.getId(),
+                scheduleSlot == null ? null : scheduleSlot.getTimeStart(),
+                reservation.getDurationInMinutes());
+    }
+}
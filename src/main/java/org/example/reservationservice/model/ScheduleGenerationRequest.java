@@ -0,0 +1,17 @@
+package org.example.reservationservice.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+public record ScheduleGenerationRequest(Long resourceId,
+                                        @JsonFormat(pattern = "yyyy-MM-dd") LocalDate dateFrom,
+                                        @JsonFormat(pattern = "yyyy-MM-dd") LocalDate dateTo,
+                                        Set<DayOfWeek> weekdays,
+                                        @JsonFormat(pattern = "HH:mm") LocalTime hourFrom,
+                                        @JsonFormat(pattern = "HH:mm") LocalTime hourTo,
+                                        Integer stepInMinutes) {
+}
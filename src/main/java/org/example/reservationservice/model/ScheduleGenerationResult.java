@@ -0,0 +1,4 @@
+package org.example.reservationservice.model;
+
+public record ScheduleGenerationResult(int created, int skipped) {
+}
@@ -2,6 +2,7 @@ package org.example.reservationservice.model;
 
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -15,15 +16,29 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "schedules")
+@Table(name = "schedules",
+        uniqueConstraints = @UniqueConstraint(name = "uk_schedule_resource_time_start", columnNames = {"schedule_resource_id", "schedule_time_start"}),
+        indexes = {
+                @Index(name = "idx_schedule_resource_time_start_visible", columnList = "schedule_resource_id, schedule_time_start, schedule_is_visible"),
+                @Index(name = "idx_schedule_time_start", columnList = "schedule_time_start")
+        })
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class ScheduleSlot {
+    public static final long DEFAULT_RESOURCE_ID = 1L;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "schedule_id_generator")
+    @SequenceGenerator(name = "schedule_id_generator", sequenceName = "schedules_seq", allocationSize = 50)
     @Column(name = "schedule_id")
     private Long id;
+    @Column(name = "schedule_resource_id")
+    private Long resourceId;
     @Column(name = "schedule_time_start")
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm")
     private LocalDateTime timeStart;
     @Column(name = "schedule_is_visible")
     private boolean isVisible;
+    @Version
+    @Column(name = "schedule_version")
+    private Long version;
 }
@@ -0,0 +1,29 @@
+package org.example.reservationservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "schedules_archive", indexes = @Index(name = "idx_schedule_archive_resource_time_start", columnList = "schedule_resource_id, schedule_time_start"))
+public class ScheduleSlotArchive {
+    @Id
+    @Column(name = "schedule_id")
+    private Long id;
+    @Column(name = "schedule_resource_id")
+    private Long resourceId;
+    @Column(name = "schedule_time_start")
+    private LocalDateTime timeStart;
+    @Column(name = "schedule_is_visible")
+    private boolean isVisible;
+    @Column(name = "schedule_archived_at")
+    private LocalDateTime archivedAt;
+}
@@ -4,5 +4,5 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 
 import java.time.LocalDateTime;
 
-public record ScheduleSlotRequest(@JsonFormat(pattern = "yyyy-MM-dd HH:mm")LocalDateTime timeStart) {
+public record ScheduleSlotRequest(Long resourceId, @JsonFormat(pattern = "yyyy-MM-dd HH:mm")LocalDateTime timeStart) {
 }
@@ -0,0 +1,8 @@
+package org.example.reservationservice.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+
+public record ScheduleSlotView(Long id, @JsonFormat(pattern = "yyyy-MM-dd HH:mm") LocalDateTime timeStart, boolean visible) {
+}
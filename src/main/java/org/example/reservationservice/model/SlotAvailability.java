@@ -0,0 +1,6 @@
+package org.example.reservationservice.model;
+
+import java.time.LocalDateTime;
+
+public record SlotAvailability(Long id, Long resourceId, LocalDateTime timeStart, boolean visible) {
+}
@@ -0,0 +1,4 @@
+package org.example.reservationservice.model;
+
+public record StatusCount(ReservationStatus status, Long count) {
+}
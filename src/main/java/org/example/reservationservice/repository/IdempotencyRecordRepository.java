@@ -0,0 +1,19 @@
+package org.example.reservationservice.repository;
+
+import org.example.reservationservice.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByIdempotencyKey(String idempotencyKey);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord i where i.createdAt < :createdBefore")
+    int deleteAllCreatedBefore(@Param("createdBefore") LocalDateTime createdBefore);
+}
@@ -0,0 +1,27 @@
+package org.example.reservationservice.repository;
+
+import org.example.reservationservice.model.ReservationArchive;
+import org.example.reservationservice.model.ReservationView;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ReservationArchiveRepository extends JpaRepository<ReservationArchive, Long> {
+
+    @Modifying
+    @Query("insert into ReservationArchive (id, resourceId, firstName, lastName, email, phoneNumber, status, scheduleSlotId, timeStart, durationInMinutes, archivedAt) " +
+            "select r.id, r.resourceId, r.firstName, r.lastName, r.email, r.phoneNumber, r.status, s.id, s.timeStart, r.durationInMinutes, :archivedAt " +
+            "from Reservation r join r.scheduleSlot s where r.id in :ids")
+    int copyFromReservations(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Query("select new org.example.reservationservice.model.ReservationView(a.id, a.resourceId, a.firstName, a.lastName, " +
+            "a.email, a.phoneNumber, a.status, a.scheduleSlotId, a.timeStart, a.durationInMinutes) from ReservationArchive a " +
+            "where a.id > :cursor order by a.id")
+    List<ReservationView> findViewsByIdGreaterThan(@Param("cursor") Long cursor, Limit limit);
+}
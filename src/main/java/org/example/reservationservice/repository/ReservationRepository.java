@@ -1,7 +1,91 @@
 package org.example.reservationservice.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.example.reservationservice.model.AcceptedInterval;
+import org.example.reservationservice.model.DailyBookedMinutes;
+import org.example.reservationservice.model.PendingDeadline;
 import org.example.reservationservice.model.Reservation;
+import org.example.reservationservice.model.ReservationStatus;
+import org.example.reservationservice.model.ReservationView;
+import org.example.reservationservice.model.StatusCount;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+    String SELECT_VIEW = "select new org.example.reservationservice.model.ReservationView(r.id, r.resourceId, r.firstName, r.lastName, " +
+            "r.email, r.phoneNumber, r.status, s.id, s.timeStart, r.durationInMinutes) from Reservation r left join r.scheduleSlot s ";
+
+    @Query(SELECT_VIEW + "where r.id > :cursor order by r.id")
+    List<ReservationView> findViewsByIdGreaterThan(@Param("cursor") Long cursor, Limit limit);
+
+    @Query(SELECT_VIEW + "where r.status = :status and r.id > :cursor order by r.id")
+    List<ReservationView> findViewsByStatusAndIdGreaterThan(@Param("status") ReservationStatus status, @Param("cursor") Long cursor, Limit limit);
+
+    @Query(SELECT_VIEW + "where r.id = :id")
+    Optional<ReservationView> findViewById(@Param("id") Long id);
+
+    @Query("select r from Reservation r left join fetch r.scheduleSlot where r.id = :id")
+    Optional<Reservation> findWithScheduleSlotById(@Param("id") Long id);
+
+    @Query("select r from Reservation r join fetch r.scheduleSlot where r.id in :ids")
+    List<Reservation> findAllWithScheduleSlotByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new org.example.reservationservice.model.AcceptedInterval(r.id, s.resourceId, s.timeStart, r.durationInMinutes) " +
+            "from Reservation r join r.scheduleSlot s where r.status = :status")
+    List<AcceptedInterval> findIntervalsByStatus(@Param("status") ReservationStatus status);
+
+    @Query("select new org.example.reservationservice.model.AcceptedInterval(r.id, s.resourceId, s.timeStart, r.durationInMinutes) " +
+            "from Reservation r join r.scheduleSlot s where r.status in :statuses and s.timeStart < :before order by r.id")
+    List<AcceptedInterval> findIntervalsByStatusInStartingBefore(@Param("statuses") Collection<ReservationStatus> statuses,
+                                                                 @Param("before") LocalDateTime before, Limit limit);
+
+    @Query("select new org.example.reservationservice.model.PendingDeadline(r.id, s.timeStart) " +
+            "from Reservation r join r.scheduleSlot s where r.status = :status")
+    List<PendingDeadline> findDeadlinesByStatus(@Param("status") ReservationStatus status);
+
+    @Query("select new org.example.reservationservice.model.PendingDeadline(r.id, s.timeStart) " +
+            "from Reservation r join r.scheduleSlot s where r.status = :status and s.timeStart < :before")
+    List<PendingDeadline> findDeadlinesByStatusStartingBefore(@Param("status") ReservationStatus status,
+                                                              @Param("before") LocalDateTime before);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Reservation r where r.id in :ids and r.status = :status")
+    List<Reservation> lockAllByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("status") ReservationStatus status);
+
+    @Query("select new org.example.reservationservice.model.StatusCount(r.status, count(r)) from Reservation r join r.scheduleSlot s " +
+            "where s.resourceId = :resourceId and s.timeStart >= :from and s.timeStart < :to group by r.status")
+    List<StatusCount> countByStatusInWindow(@Param("resourceId") Long resourceId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select new org.example.reservationservice.model.DailyBookedMinutes(cast(s.timeStart as LocalDate), sum(r.durationInMinutes)) " +
+            "from Reservation r join r.scheduleSlot s " +
+            "where r.status = :status and s.resourceId = :resourceId and s.timeStart >= :from and s.timeStart < :to " +
+            "group by cast(s.timeStart as LocalDate)")
+    List<DailyBookedMinutes> sumDurationByDay(@Param("status") ReservationStatus status, @Param("resourceId") Long resourceId,
+                                              @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("update Reservation r set r.status = :status, r.version = r.version + 1 where r.id in :ids and r.status = :current")
+    int updateStatusByIdsAndStatus(@Param("ids") Collection<Long> ids, @Param("current") ReservationStatus current, @Param("status") ReservationStatus status);
+
+    @Modifying
+    @Query("delete from Reservation r where r.id in :ids")
+    int deleteAllByIds(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query(SELECT_VIEW + "order by r.id")
+    Stream<ReservationView> streamAllViews();
 }
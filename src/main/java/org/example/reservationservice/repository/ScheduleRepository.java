@@ -1,20 +1,68 @@
 package org.example.reservationservice.repository;
 
 
+import jakarta.persistence.QueryHint;
+import org.example.reservationservice.model.DailySlotUsage;
 import org.example.reservationservice.model.ScheduleSlot;
+import org.example.reservationservice.model.ScheduleSlotView;
+import org.example.reservationservice.model.SlotAvailability;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface ScheduleRepository extends JpaRepository<ScheduleSlot, Long> {
 
-    boolean existsByTimeStart(LocalDateTime timeStart);
+    boolean existsByResourceIdAndTimeStart(Long resourceId, LocalDateTime timeStart);
+
+    Optional<ScheduleSlot> findByResourceIdAndTimeStart(Long resourceId, LocalDateTime timeStart);
+
+    void deleteAllByResourceIdAndTimeStartBetween(Long resourceId, LocalDateTime date1, LocalDateTime date2);
+
+    List<ScheduleSlot> findScheduleSlotsByResourceIdAndTimeStartBetween(Long resourceId, LocalDateTime date1, LocalDateTime date2);
+
+    @Modifying
+    @Query("update ScheduleSlot s set s.isVisible = :visible, s.version = s.version + 1 " +
+            "where s.resourceId = :resourceId and s.timeStart >= :from and s.timeStart < :to and s.isVisible <> :visible")
+    int updateVisibilityInRange(@Param("resourceId") Long resourceId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to, @Param("visible") boolean visible);
+
+    @Query("select s.timeStart from ScheduleSlot s where s.resourceId = :resourceId and s.timeStart between :from and :to")
+    List<LocalDateTime> findTimeStartsBetween(@Param("resourceId") Long resourceId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select new org.example.reservationservice.model.ScheduleSlotView(s.id, s.timeStart, s.isVisible) from ScheduleSlot s " +
+            "where s.resourceId = :resourceId and s.timeStart >= :from and s.timeStart < :to and (:visibleOnly = false or s.isVisible = true) " +
+            "order by s.timeStart")
+    List<ScheduleSlotView> findViewsInWindow(@Param("resourceId") Long resourceId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to, @Param("visibleOnly") boolean visibleOnly);
+
+    @Query("select new org.example.reservationservice.model.SlotAvailability(s.id, s.resourceId, s.timeStart, s.isVisible) from ScheduleSlot s")
+    List<SlotAvailability> findAllAvailability();
+
+    @Query("select new org.example.reservationservice.model.SlotAvailability(s.id, s.resourceId, s.timeStart, s.isVisible) from ScheduleSlot s " +
+            "where s.timeStart < :before and not exists (select r.id from Reservation r where r.scheduleSlot = s) order by s.timeStart")
+    List<SlotAvailability> findUnreservedAvailabilityBefore(@Param("before") LocalDateTime before, Limit limit);
 
-    Optional<ScheduleSlot> findByTimeStart(LocalDateTime timeStart);
+    @Query("select new org.example.reservationservice.model.DailySlotUsage(cast(s.timeStart as LocalDate), count(s), " +
+            "sum(case when s.isVisible = false then 1 else 0 end)) from ScheduleSlot s " +
+            "where s.resourceId = :resourceId and s.timeStart >= :from and s.timeStart < :to " +
+            "group by cast(s.timeStart as LocalDate)")
+    List<DailySlotUsage> findDailyUsage(@Param("resourceId") Long resourceId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 
-    void deleteAllByTimeStartBetween(LocalDateTime date1, LocalDateTime date2);
+    @Modifying
+    @Query("delete from ScheduleSlot s where s.id in :ids")
+    int deleteAllByIds(@Param("ids") Collection<Long> ids);
 
-    List<ScheduleSlot> findScheduleSlotsByTimeStartBetween(LocalDateTime date1, LocalDateTime date2);
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("select s from ScheduleSlot s order by s.resourceId, s.timeStart")
+    Stream<ScheduleSlot> streamAll();
 }
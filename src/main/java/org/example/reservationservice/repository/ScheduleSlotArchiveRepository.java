@@ -0,0 +1,24 @@
+package org.example.reservationservice.repository;
+
+import org.example.reservationservice.model.ScheduleSlotArchive;
+import org.example.reservationservice.model.ScheduleSlotView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ScheduleSlotArchiveRepository extends JpaRepository<ScheduleSlotArchive, Long> {
+
+    @Modifying
+    @Query("insert into ScheduleSlotArchive (id, resourceId, timeStart, isVisible, archivedAt) " +
+            "select s.id, s.resourceId, s.timeStart, s.isVisible, :archivedAt from ScheduleSlot s where s.id in :ids")
+    int copyFromSchedules(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Query("select new org.example.reservationservice.model.ScheduleSlotView(a.id, a.timeStart, a.isVisible) from ScheduleSlotArchive a " +
+            "where a.resourceId = :resourceId and a.timeStart >= :from and a.timeStart < :to order by a.timeStart")
+    List<ScheduleSlotView> findViewsInWindow(@Param("resourceId") Long resourceId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,23 @@
+package org.example.reservationservice.rest;
+
+import lombok.RequiredArgsConstructor;
+import org.example.reservationservice.model.AccessToken;
+import org.example.reservationservice.service.TokenService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class AuthController {
+
+    private final TokenService tokenService;
+
+    @PostMapping("/auth/token")
+    public ResponseEntity<AccessToken> issueToken(Authentication authentication) {
+        return ResponseEntity.ok(tokenService.issue(authentication));
+    }
+}
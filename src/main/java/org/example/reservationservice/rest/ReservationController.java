@@ -2,13 +2,26 @@ package org.example.reservationservice.rest;
 
 
 import lombok.RequiredArgsConstructor;
-import org.example.reservationservice.model.Reservation;
+import org.example.reservationservice.model.CursorPage;
+import org.example.reservationservice.model.IntakeTicket;
+import org.example.reservationservice.model.ReservationBatchItem;
+import org.example.reservationservice.model.ReservationBatchResult;
 import org.example.reservationservice.model.ReservationRequest;
+import org.example.reservationservice.model.ReservationStatistics;
+import org.example.reservationservice.model.ReservationView;
+import org.example.reservationservice.service.ExportService;
+import org.example.reservationservice.service.IdempotencyService;
+import org.example.reservationservice.service.ReservationIntakeService;
 import org.example.reservationservice.service.ReservationService;
+import org.example.reservationservice.service.StatisticsService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -17,27 +30,74 @@ import java.util.List;
 public class ReservationController {
 
     private final ReservationService reservationService;
+    private final ExportService exportService;
+    private final IdempotencyService idempotencyService;
+    private final ReservationIntakeService reservationIntakeService;
+    private final StatisticsService statisticsService;
 
     @GetMapping("/reservations")
-    public ResponseEntity<List<Reservation>> findReservationsByStatus(@RequestParam(required = false) String status){
+    public ResponseEntity<CursorPage<ReservationView>> findReservationsByStatus(@RequestParam(required = false) String status,
+                                                                                @RequestParam(required = false) Long cursor,
+                                                                                @RequestParam(required = false) Integer size){
         if(status == null) {
-            return ResponseEntity.ok(reservationService.findAll());
+            return ResponseEntity.ok(reservationService.findAll(cursor, size));
         }
-        return ResponseEntity.ok(reservationService.findAllByStatus(status));
+        return ResponseEntity.ok(reservationService.findAllByStatus(status, cursor, size));
+    }
+
+    @GetMapping("/reservations/history")
+    public ResponseEntity<CursorPage<ReservationView>> findArchivedReservations(@RequestParam(required = false) Long cursor,
+                                                                                @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(reservationService.findArchived(cursor, size));
+    }
+
+    @GetMapping("/reservations/stats")
+    public ResponseEntity<ReservationStatistics> getStatistics(@RequestParam(required = false) Long resourceId,
+                                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(statisticsService.findStatistics(resourceId, from, to));
+    }
+
+    @GetMapping(value = "/reservations/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportReservations() {
+        return ResponseEntity.ok(exportService::exportReservations);
     }
 
     @PostMapping("/reservations")
-    public ResponseEntity<Reservation> saveReservation(@RequestBody ReservationRequest request) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(reservationService.saveReservation(request));
+    public ResponseEntity<?> saveReservation(@RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+                                             @RequestBody ReservationRequest request) {
+        if(reservationIntakeService.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(reservationIntakeService.submit(request, idempotencyKey));
+        }
+        if(idempotencyKey == null) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(reservationService.saveReservation(request));
+        }
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(idempotencyService.submit(idempotencyKey, request, () -> reservationService.saveReservation(request, idempotencyKey)));
+    }
+
+    @GetMapping("/reservations/intake/{trackingId}")
+    public ResponseEntity<IntakeTicket> findIntakeTicket(@PathVariable String trackingId) {
+        return ResponseEntity.ok(reservationIntakeService.findTicket(trackingId));
     }
 
     @PatchMapping("/reservations/{id}/accept")
-    public ResponseEntity<Reservation> acceptReservation(@PathVariable Long id, @RequestParam Integer duration) {
+    public ResponseEntity<ReservationView> acceptReservation(@PathVariable Long id, @RequestParam Integer duration) {
         return ResponseEntity.ok(reservationService.acceptReservation(id, duration));
     }
 
+    @PatchMapping("/reservations/batch")
+    public ResponseEntity<List<ReservationBatchResult>> moderateReservations(@RequestBody List<ReservationBatchItem> items) {
+        return ResponseEntity.ok(reservationService.moderateReservations(items));
+    }
+
     @PatchMapping("/reservations/{id}/reject")
-    public ResponseEntity<Reservation> rejectReservation(@PathVariable Long id) {
+    public ResponseEntity<ReservationView> rejectReservation(@PathVariable Long id) {
         return ResponseEntity.ok(reservationService.rejectReservation(id));
     }
+
+    @PatchMapping("/reservations/{id}/cancel")
+    public ResponseEntity<ReservationView> cancelReservation(@PathVariable Long id) {
+        return ResponseEntity.ok(reservationService.cancelReservation(id));
+    }
 }
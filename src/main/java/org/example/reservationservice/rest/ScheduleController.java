@@ -1,13 +1,24 @@
 package org.example.reservationservice.rest;
 
 import lombok.RequiredArgsConstructor;
+import org.example.reservationservice.model.FreeWindow;
+import org.example.reservationservice.model.ScheduleGenerationRequest;
+import org.example.reservationservice.model.ScheduleGenerationResult;
 import org.example.reservationservice.model.ScheduleSlot;
 import org.example.reservationservice.model.ScheduleSlotRequest;
+import org.example.reservationservice.model.ScheduleSlotView;
+import org.example.reservationservice.service.AvailabilityFeed;
+import org.example.reservationservice.service.ExportService;
 import org.example.reservationservice.service.ScheduleService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -15,15 +26,50 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ScheduleController {
     private final ScheduleService scheduleService;
+    private final ExportService exportService;
+    private final AvailabilityFeed availabilityFeed;
 
     @PostMapping("/schedules")
     public ResponseEntity<ScheduleSlot> saveSchedule(@RequestBody ScheduleSlotRequest request) {
         return ResponseEntity.status(HttpStatus.CREATED).body(scheduleService.saveSchedule(request));
     }
 
+    @PostMapping("/schedules/bulk")
+    public ResponseEntity<ScheduleGenerationResult> generateSchedules(@RequestBody ScheduleGenerationRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(scheduleService.generateSchedules(request));
+    }
+
     @GetMapping("/schedules")
-    public ResponseEntity<List<ScheduleSlot>> getAllSchedules() {
-        return ResponseEntity.ok(scheduleService.findAll());
+    public ResponseEntity<List<ScheduleSlotView>> getSchedules(@RequestParam(required = false) Long resourceId,
+                                                               @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm") LocalDateTime from,
+                                                               @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm") LocalDateTime to,
+                                                               @RequestParam(defaultValue = "false") boolean visibleOnly) {
+        return ResponseEntity.ok(scheduleService.findInWindow(resourceId, from, to, visibleOnly));
+    }
+
+    @GetMapping("/schedules/free-windows")
+    public ResponseEntity<List<FreeWindow>> findFreeWindows(@RequestParam(required = false) Long resourceId,
+                                                            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm") LocalDateTime from,
+                                                            @RequestParam Integer duration,
+                                                            @RequestParam(required = false) Integer count) {
+        return ResponseEntity.ok(scheduleService.findFreeWindows(resourceId, from, duration, count));
+    }
+
+    @GetMapping(value = "/schedules/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToAvailability(@RequestParam(required = false) Long resourceId) {
+        return availabilityFeed.subscribe(resourceId);
+    }
+
+    @GetMapping("/schedules/history")
+    public ResponseEntity<List<ScheduleSlotView>> getArchivedSchedules(@RequestParam(required = false) Long resourceId,
+                                                                       @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm") LocalDateTime from,
+                                                                       @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm") LocalDateTime to) {
+        return ResponseEntity.ok(scheduleService.findArchivedInWindow(resourceId, from, to));
+    }
+
+    @GetMapping(value = "/schedules/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportSchedules() {
+        return ResponseEntity.ok(exportService::exportSchedules);
     }
 
     @DeleteMapping("/schedules/{id}")
@@ -0,0 +1,128 @@
+package org.example.reservationservice.service;
+
+import org.example.reservationservice.model.AcceptedInterval;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index of the time ranges held by accepted reservations, partitioned by resource. Accepted ranges of
+ * one resource never overlap, so ordering them by start also orders them by end, and an overlap check only has to
+ * look at the closest range starting before the end of the requested one.
+ */
+@Component
+public class AcceptedReservationIndex {
+    private final ConcurrentMap<Long, Timeline> timelines = new ConcurrentHashMap<>();
+
+    public void rebuild(Collection<AcceptedInterval> accepted) {
+        Map<Long, List<AcceptedInterval>> byResource = accepted.stream()
+                .collect(Collectors.groupingBy(AcceptedInterval::resourceId));
+        byResource.forEach((resourceId, intervals) -> timeline(resourceId).rebuild(intervals));
+        timelines.keySet().retainAll(byResource.keySet());
+    }
+
+    public boolean overlaps(long resourceId, LocalDateTime fromInclusive, LocalDateTime toExclusive) {
+        Timeline timeline = timelines.get(resourceId);
+        return timeline != null && timeline.overlaps(fromInclusive, toExclusive);
+    }
+
+    public boolean tryAdd(long resourceId, long reservationId, LocalDateTime fromInclusive, LocalDateTime toExclusive) {
+        return timeline(resourceId).tryAdd(reservationId, fromInclusive, toExclusive);
+    }
+
+    public void remove(long resourceId, long reservationId, LocalDateTime fromInclusive) {
+        Timeline timeline = timelines.get(resourceId);
+        if(timeline != null) {
+            timeline.remove(reservationId, fromInclusive);
+        }
+    }
+
+    public int size() {
+        return timelines.values().stream().mapToInt(Timeline::size).sum();
+    }
+
+    private Timeline timeline(long resourceId) {
+        return timelines.computeIfAbsent(resourceId, id -> new Timeline());
+    }
+
+    private static final class Timeline {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private TreeMap<Long, Interval> intervals = new TreeMap<>();
+
+        void rebuild(Collection<AcceptedInterval> accepted) {
+            TreeMap<Long, Interval> rebuilt = new TreeMap<>();
+            for(AcceptedInterval interval : accepted) {
+                long start = SlotAvailabilityIndex.toKey(interval.timeStart());
+                rebuilt.put(start, new Interval(start + interval.durationInMinutes(), interval.reservationId()));
+            }
+            lock.writeLock().lock();
+            try {
+                intervals = rebuilt;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        boolean overlaps(LocalDateTime fromInclusive, LocalDateTime toExclusive) {
+            lock.readLock().lock();
+            try {
+                return overlaps(SlotAvailabilityIndex.toKey(fromInclusive), SlotAvailabilityIndex.toKey(toExclusive));
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        boolean tryAdd(long reservationId, LocalDateTime fromInclusive, LocalDateTime toExclusive) {
+            long start = SlotAvailabilityIndex.toKey(fromInclusive);
+            long end = SlotAvailabilityIndex.toKey(toExclusive);
+            lock.writeLock().lock();
+            try {
+                if(start >= end || overlaps(start, end)) {
+                    return false;
+                }
+                return intervals.putIfAbsent(start, new Interval(end, reservationId)) == null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(long reservationId, LocalDateTime fromInclusive) {
+            lock.writeLock().lock();
+            try {
+                long start = SlotAvailabilityIndex.toKey(fromInclusive);
+                Interval interval = intervals.get(start);
+                if(interval != null && interval.reservationId() == reservationId) {
+                    intervals.remove(start);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return intervals.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private boolean overlaps(long start, long end) {
+            Map.Entry<Long, Interval> previous = intervals.lowerEntry(end);
+            return previous != null && previous.getValue().end() > start;
+        }
+    }
+
+    private record Interval(long end, long reservationId) {
+    }
+}
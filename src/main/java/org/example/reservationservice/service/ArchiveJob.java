@@ -0,0 +1,52 @@
+package org.example.reservationservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Moves finished reservations and schedule slots that started before the archive horizon out of the hot tables. Each
+ * tick archives at most one chunk in its own transaction, so a large backlog is drained in short steps that never hold
+ * the shared scheduler thread; once nothing is left the job idles until the next archive interval.
+ */
+@Component
+public class ArchiveJob {
+    private final ArchiveService archiveService;
+    private final boolean enabled;
+    private final Duration horizon;
+    private final int chunkSize;
+    private final Duration interval;
+    private volatile Instant idleUntil = Instant.MIN;
+
+    public ArchiveJob(ArchiveService archiveService,
+                      @Value("${reservation.archive.enabled:false}") boolean enabled,
+                      @Value("${reservation.archive.horizon:90d}") Duration horizon,
+                      @Value("${reservation.archive.chunk-size:1000}") int chunkSize,
+                      @Value("${reservation.archive.interval:PT1H}") Duration interval) {
+        this.archiveService = archiveService;
+        this.enabled = enabled;
+        this.horizon = horizon;
+        this.chunkSize = chunkSize;
+        this.interval = interval;
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.archive.pause:PT0.2S}")
+    public void archive() {
+        Instant now = Instant.now();
+        if(!enabled || now.isBefore(idleUntil)) {
+            return;
+        }
+        LocalDateTime before = LocalDateTime.now().minus(horizon);
+        if(archiveService.archiveReservations(before, chunkSize) == chunkSize) {
+            return;
+        }
+        if(archiveService.archiveSchedules(before, chunkSize) == chunkSize) {
+            return;
+        }
+        idleUntil = now.plus(interval);
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.reservationservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.reservationservice.model.AcceptedInterval;
+import org.example.reservationservice.model.ReservationStatus;
+import org.example.reservationservice.model.SlotAvailability;
+import org.example.reservationservice.repository.ReservationArchiveRepository;
+import org.example.reservationservice.repository.ReservationRepository;
+import org.example.reservationservice.repository.ScheduleRepository;
+import org.example.reservationservice.repository.ScheduleSlotArchiveRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ArchiveService {
+    private static final Set<ReservationStatus> TERMINAL_STATUSES = EnumSet.of(ReservationStatus.ACCEPTED,
+            ReservationStatus.REJECTED, ReservationStatus.CANCELLED, ReservationStatus.EXPIRED);
+
+    private final ReservationRepository reservationRepository;
+    private final ScheduleRepository scheduleRepository;
+    private final ReservationArchiveRepository reservationArchiveRepository;
+    private final ScheduleSlotArchiveRepository scheduleSlotArchiveRepository;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final AcceptedReservationIndex acceptedReservationIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public int archiveReservations(LocalDateTime before, int limit) {
+        List<AcceptedInterval> archived = reservationRepository.findIntervalsByStatusInStartingBefore(TERMINAL_STATUSES, before, Limit.of(limit));
+        if(archived.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = archived.stream().map(AcceptedInterval::reservationId).toList();
+        reservationArchiveRepository.copyFromReservations(ids, LocalDateTime.now());
+        reservationRepository.deleteAllByIds(ids);
+        TransactionCallbacks.afterCommit(() -> archived.forEach(interval -> acceptedReservationIndex.remove(
+                ResourceIds.orDefault(interval.resourceId()), interval.reservationId(), interval.timeStart())));
+        return archived.size();
+    }
+
+    @Transactional
+    public int archiveSchedules(LocalDateTime before, int limit) {
+        List<SlotAvailability> archived = scheduleRepository.findUnreservedAvailabilityBefore(before, Limit.of(limit));
+        if(archived.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = archived.stream().map(SlotAvailability::id).toList();
+        scheduleSlotArchiveRepository.copyFromSchedules(ids, LocalDateTime.now());
+        scheduleRepository.deleteAllByIds(ids);
+        TransactionCallbacks.afterCommit(() -> archived.forEach(slot ->
+                slotAvailabilityIndex.remove(ResourceIds.orDefault(slot.resourceId()), slot.timeStart())));
+        archived.stream()
+                .collect(Collectors.groupingBy(slot -> ResourceIds.orDefault(slot.resourceId()), TreeMap::new, Collectors.toList()))
+                .forEach((resourceId, slots) -> eventPublisher.publishEvent(new ScheduleSlotsChangedEvent(resourceId,
+                        slots.get(0).timeStart(), slots.get(slots.size() - 1).timeStart().plusMinutes(1))));
+        return archived.size();
+    }
+}
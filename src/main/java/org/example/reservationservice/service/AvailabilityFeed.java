@@ -0,0 +1,190 @@
+package org.example.reservationservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.reservationservice.model.AvailabilityDelta;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes slot availability changes to server-sent event subscribers. Each change is read from the in-memory index and
+ * serialized once, then handed to every subscriber of the resource through its own bounded buffer. A subscriber whose
+ * buffer is full is disconnected instead of slowing down the others; clients are expected to reconnect and reload.
+ */
+@Service
+public class AvailabilityFeed implements DisposableBean {
+    private static final String EVENT_NAME = "availability";
+
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final ObjectMapper objectMapper;
+    private final Executor sender;
+    private final int bufferSize;
+    private final Duration timeout;
+    private final ConcurrentMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Counter dropped;
+
+    @Autowired
+    public AvailabilityFeed(SlotAvailabilityIndex slotAvailabilityIndex,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${reservation.feed.sender-threads:4}") int senderThreads,
+                            @Value("${reservation.feed.buffer-size:32}") int bufferSize,
+                            @Value("${reservation.feed.timeout:30m}") Duration timeout) {
+        this(slotAvailabilityIndex, objectMapper, meterRegistry,
+                Executors.newFixedThreadPool(senderThreads, Thread.ofPlatform().name("availability-feed-", 0).daemon().factory()),
+                bufferSize, timeout);
+    }
+
+    AvailabilityFeed(SlotAvailabilityIndex slotAvailabilityIndex, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                     Executor sender, int bufferSize, Duration timeout) {
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.objectMapper = objectMapper;
+        this.sender = sender;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.dropped = Counter.builder("reservation.feed.dropped").register(meterRegistry);
+        Gauge.builder("reservation.feed.subscribers", subscribers, map -> map.values().stream().mapToInt(Set::size).sum())
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long resourceId) {
+        return subscribe(ResourceIds.orDefault(resourceId), new SseEmitter(timeout.toMillis()));
+    }
+
+    SseEmitter subscribe(long resourceId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(resourceId, emitter);
+        subscribers.computeIfAbsent(resourceId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onError(ex -> unsubscribe(subscriber));
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleSlotsChanged(ScheduleSlotsChangedEvent event) {
+        Set<Subscriber> resourceSubscribers = subscribers.get(event.resourceId());
+        if(resourceSubscribers == null || resourceSubscribers.isEmpty()) {
+            return;
+        }
+        AvailabilityDelta delta = new AvailabilityDelta(event.resourceId(), event.from(), event.to(),
+                slotAvailabilityIndex.findInRange(event.resourceId(), event.from(), event.to()));
+        Set<ResponseBodyEmitter.DataWithMediaType> message = SseEmitter.event()
+                .name(EVENT_NAME)
+                .data(toJson(delta), MediaType.APPLICATION_JSON)
+                .build();
+        resourceSubscribers.forEach(subscriber -> subscriber.offer(message));
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.feed.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        Set<ResponseBodyEmitter.DataWithMediaType> message = SseEmitter.event().comment("heartbeat").build();
+        subscribers.values().forEach(resourceSubscribers -> resourceSubscribers.forEach(subscriber -> subscriber.offer(message)));
+    }
+
+    @Override
+    public void destroy() {
+        if(sender instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+        subscribers.values().forEach(resourceSubscribers -> resourceSubscribers.forEach(Subscriber::close));
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.resourceId, (id, resourceSubscribers) -> {
+            resourceSubscribers.remove(subscriber);
+            return resourceSubscribers.isEmpty() ? null : resourceSubscribers;
+        });
+    }
+
+    private String toJson(AvailabilityDelta delta) {
+        try {
+            return objectMapper.writeValueAsString(delta);
+        } catch(JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private final class Subscriber {
+        private final long resourceId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(long resourceId, SseEmitter emitter) {
+            this.resourceId = resourceId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> message) {
+            if(closed) {
+                return;
+            }
+            if(!buffer.offer(message)) {
+                dropped.increment();
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        void close() {
+            closed = true;
+            unsubscribe(this);
+            buffer.clear();
+            emitter.complete();
+        }
+
+        private void scheduleDrain() {
+            if(!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sender.execute(this::drain);
+            } catch(RejectedExecutionException ex) {
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> message;
+                while(!closed && (message = buffer.poll()) != null) {
+                    emitter.send(message);
+                }
+            } catch(IOException | IllegalStateException ex) {
+                closed = true;
+                unsubscribe(this);
+            } finally {
+                draining.set(false);
+            }
+            if(!closed && !buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
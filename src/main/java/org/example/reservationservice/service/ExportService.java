@@ -0,0 +1,52 @@
+package org.example.reservationservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.example.reservationservice.model.ReservationView;
+import org.example.reservationservice.model.ScheduleSlot;
+import org.example.reservationservice.repository.ReservationRepository;
+import org.example.reservationservice.repository.ScheduleRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+    private static final int NEWLINE = '\n';
+
+    private final ReservationRepository reservationRepository;
+    private final ScheduleRepository scheduleRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void exportReservations(OutputStream outputStream) throws IOException {
+        try(Stream<ReservationView> reservations = reservationRepository.streamAllViews()) {
+            writeNdjson(reservations.iterator(), outputStream, reservation -> {});
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportSchedules(OutputStream outputStream) throws IOException {
+        try(Stream<ScheduleSlot> schedules = scheduleRepository.streamAll()) {
+            writeNdjson(schedules.iterator(), outputStream, entityManager::detach);
+        }
+    }
+
+    private <T> void writeNdjson(Iterator<T> rows, OutputStream outputStream, Consumer<T> afterWrite) throws IOException {
+        while(rows.hasNext()) {
+            T row = rows.next();
+            outputStream.write(objectMapper.writeValueAsBytes(row));
+            outputStream.write(NEWLINE);
+            afterWrite.accept(row);
+        }
+        outputStream.flush();
+    }
+}
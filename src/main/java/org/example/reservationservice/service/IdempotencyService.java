@@ -0,0 +1,131 @@
+package org.example.reservationservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.example.reservationservice.config.exception.IdempotencyKeyMismatchException;
+import org.example.reservationservice.config.exception.ReservationConflictException;
+import org.example.reservationservice.config.exception.ReservationException;
+import org.example.reservationservice.model.IdempotencyRecord;
+import org.example.reservationservice.model.ReservationRequest;
+import org.example.reservationservice.model.ReservationView;
+import org.example.reservationservice.repository.IdempotencyRecordRepository;
+import org.example.reservationservice.repository.ReservationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+@Service
+public class IdempotencyService {
+    private static final int MAX_KEY_LENGTH = 64;
+    private static final char FIELD_SEPARATOR = '\u001f';
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ReservationRepository reservationRepository;
+    private final Duration timeToLive;
+    private final Cache<String, StoredResponse> responses;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              ReservationRepository reservationRepository,
+                              @Value("${reservation.idempotency.maximum-size:100000}") long maximumSize,
+                              @Value("${reservation.idempotency.time-to-live:24h}") Duration timeToLive) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.reservationRepository = reservationRepository;
+        this.timeToLive = timeToLive;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .build();
+    }
+
+    public ReservationView submit(String idempotencyKey, ReservationRequest request, Supplier<ReservationView> action) {
+        Optional<ReservationView> replay = findReplay(idempotencyKey, request);
+        if(replay.isPresent()) {
+            return replay.get();
+        }
+        try {
+            return action.get();
+        } catch(DataIntegrityViolationException ex) {
+            return findReplay(idempotencyKey, request).orElseThrow(
+                    () -> new ReservationConflictException("request with this idempotency key is in progress, retry later"));
+        }
+    }
+
+    public Optional<ReservationView> findReplay(String idempotencyKey, ReservationRequest request) {
+        validate(idempotencyKey);
+        String requestHash = requestHash(request);
+        StoredResponse cached = responses.getIfPresent(idempotencyKey);
+        if(cached != null) {
+            checkSameRequest(cached.requestHash(), requestHash);
+            return Optional.of(cached.reservation());
+        }
+        Optional<IdempotencyRecord> record = idempotencyRecordRepository.findByIdempotencyKey(idempotencyKey)
+                .filter(stored -> stored.getCreatedAt().isAfter(LocalDateTime.now().minus(timeToLive)));
+        if(record.isEmpty()) {
+            return Optional.empty();
+        }
+        checkSameRequest(record.get().getRequestHash(), requestHash);
+        Optional<ReservationView> stored = reservationRepository.findViewById(record.get().getReservationId());
+        stored.ifPresent(reservation -> responses.put(idempotencyKey, new StoredResponse(record.get().getRequestHash(), reservation)));
+        return stored;
+    }
+
+    public void record(String idempotencyKey, ReservationRequest request, ReservationView reservation) {
+        validate(idempotencyKey);
+        String requestHash = requestHash(request);
+        idempotencyRecordRepository.save(IdempotencyRecord.builder()
+                .idempotencyKey(idempotencyKey)
+                .requestHash(requestHash)
+                .reservationId(reservation.id())
+                .createdAt(LocalDateTime.now())
+                .build());
+        TransactionCallbacks.afterCommit(() -> responses.put(idempotencyKey, new StoredResponse(requestHash, reservation)));
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.idempotency.cleanup-interval:PT1H}")
+    @Transactional
+    public void removeExpired() {
+        idempotencyRecordRepository.deleteAllCreatedBefore(LocalDateTime.now().minus(timeToLive));
+    }
+
+    private void validate(String idempotencyKey) {
+        if(idempotencyKey == null || idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ReservationException("wrong idempotency key");
+        }
+    }
+
+    private static void checkSameRequest(String storedHash, String requestHash) {
+        if(storedHash != null && !storedHash.equals(requestHash)) {
+            throw new IdempotencyKeyMismatchException("idempotency key was already used for a different request");
+        }
+    }
+
+    static String requestHash(ReservationRequest request) {
+        String fields = String.join(String.valueOf(FIELD_SEPARATOR),
+                String.valueOf(ResourceIds.orDefault(request.resourceId())),
+                Objects.toString(request.firstName(), ""),
+                Objects.toString(request.lastName(), ""),
+                Objects.toString(request.email(), ""),
+                Objects.toString(request.phoneNumber(), ""),
+                Objects.toString(request.timeStart(), ""));
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(fields.getBytes(StandardCharsets.UTF_8)));
+        } catch(NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private record StoredResponse(String requestHash, ReservationView reservation) {
+    }
+}
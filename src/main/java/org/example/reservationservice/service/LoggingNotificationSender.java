@@ -0,0 +1,17 @@
+package org.example.reservationservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.reservationservice.model.OutboxMessage;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "reservation.outbox.sender", havingValue = "log", matchIfMissing = true)
+public class LoggingNotificationSender implements NotificationSender {
+
+    @Override
+    public void send(OutboxMessage message) {
+        log.info("reservation {} is {}", message.getReservationId(), message.getStatus());
+    }
+}
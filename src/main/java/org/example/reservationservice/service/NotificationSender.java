@@ -0,0 +1,8 @@
+package org.example.reservationservice.service;
+
+import org.example.reservationservice.model.OutboxMessage;
+
+public interface NotificationSender {
+
+    void send(OutboxMessage message);
+}
@@ -0,0 +1,107 @@
+package org.example.reservationservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.reservationservice.model.OutboxMessage;
+import org.example.reservationservice.repository.OutboxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class OutboxRelay {
+    private static final int MAX_BACKOFF_DOUBLINGS = 20;
+
+    private final OutboxRepository outboxRepository;
+    private final NotificationSender notificationSender;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration claimTimeout;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final int maxAttempts;
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter dead;
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       NotificationSender notificationSender,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${reservation.outbox.claim-timeout:5m}") Duration claimTimeout,
+                       @Value("${reservation.outbox.retry-backoff:5s}") Duration retryBackoff,
+                       @Value("${reservation.outbox.max-retry-backoff:1h}") Duration maxRetryBackoff,
+                       @Value("${reservation.outbox.max-attempts:10}") int maxAttempts) {
+        this.outboxRepository = outboxRepository;
+        this.notificationSender = notificationSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.claimTimeout = claimTimeout;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+        this.maxAttempts = maxAttempts;
+        this.sent = Counter.builder("reservation.outbox.sent").register(meterRegistry);
+        this.failed = Counter.builder("reservation.outbox.failed").register(meterRegistry);
+        this.dead = Counter.builder("reservation.outbox.dead").register(meterRegistry);
+    }
+
+    public int relayBatch(int batchSize) {
+        List<OutboxMessage> claimed = claim(batchSize);
+        List<Long> delivered = new ArrayList<>(claimed.size());
+        List<OutboxMessage> undelivered = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for(OutboxMessage message : claimed) {
+            try {
+                notificationSender.send(message);
+                delivered.add(message.getId());
+                sent.increment();
+            } catch(RuntimeException ex) {
+                message.setAttempts(message.getAttempts() + 1);
+                failed.increment();
+                if(message.getAttempts() >= maxAttempts) {
+                    message.setNextAttemptAt(null);
+                    message.setFailedAt(now);
+                    dead.increment();
+                } else {
+                    message.setNextAttemptAt(now.plus(backoff(message.getAttempts())));
+                }
+                undelivered.add(message);
+            }
+        }
+        record(delivered, undelivered);
+        return claimed.size();
+    }
+
+    private List<OutboxMessage> claim(int batchSize) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxMessage> due = outboxRepository.lockDueMessages(now, Limit.of(batchSize));
+            due.forEach(message -> message.setNextAttemptAt(now.plus(claimTimeout)));
+            return due;
+        });
+    }
+
+    private void record(List<Long> delivered, List<OutboxMessage> undelivered) {
+        if(delivered.isEmpty() && undelivered.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if(!delivered.isEmpty()) {
+                outboxRepository.deleteAllByIdInBatch(delivered);
+            }
+            if(!undelivered.isEmpty()) {
+                outboxRepository.saveAll(undelivered);
+            }
+        });
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, MAX_BACKOFF_DOUBLINGS));
+        return backoff.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : backoff;
+    }
+}
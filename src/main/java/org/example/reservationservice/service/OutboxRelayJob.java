@@ -0,0 +1,37 @@
+package org.example.reservationservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drains the notification outbox in batches. Rows are claimed with SKIP LOCKED in a short transaction that pushes
+ * their next attempt past the claim timeout, sent outside of any transaction and deleted only after the sender
+ * returned, so several instances can relay in parallel and every message is delivered at least once. Messages that
+ * keep failing are parked with a failure time after the configured number of attempts.
+ */
+@Component
+public class OutboxRelayJob {
+    private final OutboxRelay outboxRelay;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public OutboxRelayJob(OutboxRelay outboxRelay,
+                          @Value("${reservation.outbox.relay-enabled:true}") boolean enabled,
+                          @Value("${reservation.outbox.batch-size:100}") int batchSize) {
+        this.outboxRelay = outboxRelay;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.outbox.poll-interval:PT1S}")
+    public void relay() {
+        if(!enabled) {
+            return;
+        }
+        int relayed;
+        do {
+            relayed = outboxRelay.relayBatch(batchSize);
+        } while(relayed == batchSize);
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.reservationservice.service;
+
+import org.example.reservationservice.model.PendingDeadline;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Pending reservations ordered by the start of their slot, so the sweeper only ever looks at the head. Entries of
+ * reservations that were moderated in the meantime are not removed eagerly; the expiry update skips them.
+ */
+@Component
+public class PendingExpiryQueue {
+    private final NavigableSet<PendingDeadline> deadlines = new ConcurrentSkipListSet<>(
+            Comparator.comparing(PendingDeadline::timeStart).thenComparing(PendingDeadline::reservationId));
+
+    public void add(Long reservationId, LocalDateTime timeStart) {
+        if(reservationId != null && timeStart != null) {
+            deadlines.add(new PendingDeadline(reservationId, timeStart));
+        }
+    }
+
+    public void addAll(Collection<PendingDeadline> pending) {
+        pending.forEach(deadline -> add(deadline.reservationId(), deadline.timeStart()));
+    }
+
+    public List<PendingDeadline> pollDue(LocalDateTime now, int limit) {
+        List<PendingDeadline> due = new ArrayList<>();
+        Iterator<PendingDeadline> iterator = deadlines.iterator();
+        while(due.size() < limit && iterator.hasNext()) {
+            PendingDeadline deadline = iterator.next();
+            if(deadline.timeStart().isAfter(now)) {
+                break;
+            }
+            iterator.remove();
+            due.add(deadline);
+        }
+        return due;
+    }
+
+    public int size() {
+        return deadlines.size();
+    }
+}
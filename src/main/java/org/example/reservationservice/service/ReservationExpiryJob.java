@@ -0,0 +1,68 @@
+package org.example.reservationservice.service;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Expires pending reservations whose slot has already started. Deadlines are taken from the head of
+ * {@link PendingExpiryQueue} and expired in chunks with a single update each. The queue is seeded with every pending
+ * deadline once at startup; afterwards only deadlines falling before the next reload are re-read, which picks up
+ * reservations created by other instances without scanning the whole pending backlog.
+ */
+@Component
+public class ReservationExpiryJob {
+    private final ReservationExpiryService reservationExpiryService;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final Duration reloadInterval;
+
+    public ReservationExpiryJob(ReservationExpiryService reservationExpiryService,
+                                PendingExpiryQueue pendingExpiryQueue,
+                                MeterRegistry meterRegistry,
+                                @Value("${reservation.expiry.enabled:true}") boolean enabled,
+                                @Value("${reservation.expiry.chunk-size:500}") int chunkSize,
+                                @Value("${reservation.expiry.reload-interval:PT1H}") Duration reloadInterval) {
+        this.reservationExpiryService = reservationExpiryService;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.reloadInterval = reloadInterval;
+        Gauge.builder("reservation.expiry.queue.size", pendingExpiryQueue, PendingExpiryQueue::size).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if(enabled) {
+            reservationExpiryService.seed();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.expiry.reload-interval:PT1H}",
+            initialDelayString = "${reservation.expiry.reload-interval:PT1H}")
+    public void reload() {
+        if(enabled) {
+            reservationExpiryService.reloadStartingBefore(LocalDateTime.now().plus(reloadInterval));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.expiry.interval:PT1M}")
+    @Timed("reservation.expiry.sweep")
+    public void sweep() {
+        if(!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int expired;
+        do {
+            expired = reservationExpiryService.expireDue(now, chunkSize);
+        } while(expired == chunkSize);
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.reservationservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.reservationservice.model.OutboxMessage;
+import org.example.reservationservice.model.PendingDeadline;
+import org.example.reservationservice.model.Reservation;
+import org.example.reservationservice.model.ReservationStatus;
+import org.example.reservationservice.repository.OutboxRepository;
+import org.example.reservationservice.repository.ReservationRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class ReservationExpiryService {
+    private final ReservationRepository reservationRepository;
+    private final OutboxRepository outboxRepository;
+    private final PendingExpiryQueue pendingExpiryQueue;
+    private final ReservationMetrics reservationMetrics;
+
+    public void seed() {
+        pendingExpiryQueue.addAll(reservationRepository.findDeadlinesByStatus(ReservationStatus.PENDING));
+    }
+
+    public void reloadStartingBefore(LocalDateTime before) {
+        pendingExpiryQueue.addAll(reservationRepository.findDeadlinesByStatusStartingBefore(ReservationStatus.PENDING, before));
+    }
+
+    @Transactional
+    public int expireDue(LocalDateTime now, int limit) {
+        List<PendingDeadline> due = pendingExpiryQueue.pollDue(now, limit);
+        if(due.isEmpty()) {
+            return 0;
+        }
+        TransactionCallbacks.afterRollback(() -> pendingExpiryQueue.addAll(due));
+        List<Reservation> expiring = reservationRepository.lockAllByIdInAndStatus(
+                due.stream().map(PendingDeadline::reservationId).toList(), ReservationStatus.PENDING);
+        if(!expiring.isEmpty()) {
+            int expired = reservationRepository.updateStatusByIdsAndStatus(expiring.stream().map(Reservation::getId).toList(),
+                    ReservationStatus.PENDING, ReservationStatus.EXPIRED);
+            outboxRepository.saveAll(expiring.stream().map(ReservationExpiryService::expiredMessage).toList());
+            reservationMetrics.expired(expired);
+        }
+        return due.size();
+    }
+
+    private static OutboxMessage expiredMessage(Reservation reservation) {
+        OutboxMessage message = OutboxMessage.of(reservation);
+        message.setStatus(ReservationStatus.EXPIRED);
+        return message;
+    }
+}
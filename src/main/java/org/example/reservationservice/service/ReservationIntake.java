@@ -0,0 +1,6 @@
+package org.example.reservationservice.service;
+
+import org.example.reservationservice.model.ReservationRequest;
+
+public record ReservationIntake(String trackingId, ReservationRequest request, String idempotencyKey) {
+}
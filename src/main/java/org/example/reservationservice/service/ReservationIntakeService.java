@@ -0,0 +1,241 @@
+package org.example.reservationservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.reservationservice.config.exception.IdempotencyKeyMismatchException;
+import org.example.reservationservice.config.exception.IntakeQueueFullException;
+import org.example.reservationservice.config.exception.IntakeUnavailableException;
+import org.example.reservationservice.config.exception.ReservationException;
+import org.example.reservationservice.config.exception.ScheduleException;
+import org.example.reservationservice.model.IntakeStatus;
+import org.example.reservationservice.model.IntakeTicket;
+import org.example.reservationservice.model.Reservation;
+import org.example.reservationservice.model.ReservationRequest;
+import org.example.reservationservice.model.ReservationView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class ReservationIntakeService implements SmartLifecycle {
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(100);
+    // stop only after graceful shutdown of the web server, once no request can submit anymore
+    private static final int PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1;
+
+    private final ReservationService reservationService;
+    private final IdempotencyService idempotencyService;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration retryAfter;
+    private final BlockingQueue<ReservationIntake> queue;
+    private final Cache<String, IntakeTicket> tickets;
+    private final Cache<String, QueuedKey> queuedKeys;
+    private final Counter rejected;
+    private final ThreadFactory writerFactory;
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public ReservationIntakeService(ReservationService reservationService,
+                                    IdempotencyService idempotencyService,
+                                    SlotAvailabilityIndex slotAvailabilityIndex,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${reservation.intake.async-enabled:false}") boolean enabled,
+                                    @Value("${reservation.intake.queue-capacity:10000}") int queueCapacity,
+                                    @Value("${reservation.intake.batch-size:200}") int batchSize,
+                                    @Value("${reservation.intake.retry-after:1s}") Duration retryAfter,
+                                    @Value("${reservation.intake.ticket-time-to-live:1h}") Duration ticketTimeToLive) {
+        this(reservationService, idempotencyService, slotAvailabilityIndex, meterRegistry, enabled, queueCapacity, batchSize,
+                retryAfter, ticketTimeToLive, Thread.ofPlatform().name("reservation-intake-writer").factory());
+    }
+
+    ReservationIntakeService(ReservationService reservationService, IdempotencyService idempotencyService,
+                             SlotAvailabilityIndex slotAvailabilityIndex, MeterRegistry meterRegistry, boolean enabled,
+                             int queueCapacity, int batchSize, Duration retryAfter, Duration ticketTimeToLive,
+                             ThreadFactory writerFactory) {
+        this.reservationService = reservationService;
+        this.idempotencyService = idempotencyService;
+        this.slotAvailabilityIndex = slotAvailabilityIndex;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.retryAfter = retryAfter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.tickets = Caffeine.newBuilder().expireAfterWrite(ticketTimeToLive).build();
+        this.queuedKeys = Caffeine.newBuilder().expireAfterWrite(ticketTimeToLive).build();
+        this.rejected = Counter.builder("reservation.intake.rejected").register(meterRegistry);
+        this.writerFactory = writerFactory;
+        Gauge.builder("reservation.intake.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public IntakeTicket submit(ReservationRequest request, String idempotencyKey) {
+        if(!running) {
+            throw new IntakeUnavailableException("reservation intake is not accepting requests", retryAfterSeconds());
+        }
+        if(idempotencyKey != null) {
+            Optional<IntakeTicket> existing = findTicketForKey(idempotencyKey, request);
+            if(existing.isPresent()) {
+                return existing.get();
+            }
+        }
+        if(request.timeStart() == null
+                || slotAvailabilityIndex.findVisibleSlotId(ResourceIds.orDefault(request.resourceId()), request.timeStart()).isEmpty()) {
+            throw new ScheduleException("incorrect schedule slot");
+        }
+
+        String trackingId = UUID.randomUUID().toString();
+        IntakeTicket ticket = new IntakeTicket(trackingId, IntakeStatus.QUEUED, null, null);
+        tickets.put(trackingId, ticket);
+        if(!queue.offer(new ReservationIntake(trackingId, request, idempotencyKey))) {
+            tickets.invalidate(trackingId);
+            rejected.increment();
+            throw new IntakeQueueFullException("reservation intake queue is full", retryAfterSeconds());
+        }
+        if(idempotencyKey != null) {
+            queuedKeys.put(idempotencyKey, new QueuedKey(trackingId, request));
+        }
+        return ticket;
+    }
+
+    public IntakeTicket findTicket(String trackingId) {
+        IntakeTicket ticket = tickets.getIfPresent(trackingId);
+        if(ticket == null) {
+            throw new ReservationException("unknown tracking id");
+        }
+        return ticket;
+    }
+
+    int drain(Duration timeout) throws InterruptedException {
+        ReservationIntake first = queue.poll(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        if(first == null) {
+            return 0;
+        }
+        List<ReservationIntake> batch = new ArrayList<>(batchSize);
+        batch.add(first);
+        queue.drainTo(batch, batchSize - 1);
+        write(batch);
+        return batch.size();
+    }
+
+    @Override
+    public void start() {
+        if(!enabled || running) {
+            return;
+        }
+        running = true;
+        writer = writerFactory.newThread(this::runWriter);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if(writer != null) {
+            try {
+                writer.join();
+            } catch(InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private long retryAfterSeconds() {
+        return Math.max(1, retryAfter.toSeconds());
+    }
+
+    private void runWriter() {
+        try {
+            while(running || !queue.isEmpty()) {
+                drain(POLL_TIMEOUT);
+            }
+        } catch(InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(List<ReservationIntake> batch) {
+        Map<String, Reservation> stored;
+        try {
+            stored = reservationService.saveIntakeBatch(batch);
+        } catch(RuntimeException ex) {
+            batch.forEach(this::writeSingle);
+            return;
+        }
+        for(ReservationIntake intake : batch) {
+            Reservation reservation = stored.get(intake.trackingId());
+            if(reservation == null) {
+                complete(intake, new IntakeTicket(intake.trackingId(), IntakeStatus.FAILED, null, "incorrect schedule slot"));
+            } else {
+                complete(intake, new IntakeTicket(intake.trackingId(), IntakeStatus.STORED, reservation.getId(), null));
+            }
+        }
+    }
+
+    private void writeSingle(ReservationIntake intake) {
+        try {
+            ReservationView reservation = intake.idempotencyKey() == null
+                    ? reservationService.saveReservation(intake.request())
+                    : idempotencyService.submit(intake.idempotencyKey(), intake.request(),
+                            () -> reservationService.saveReservation(intake.request(), intake.idempotencyKey()));
+            complete(intake, new IntakeTicket(intake.trackingId(), IntakeStatus.STORED, reservation.id(), null));
+        } catch(RuntimeException ex) {
+            complete(intake, new IntakeTicket(intake.trackingId(), IntakeStatus.FAILED, null, ex.getMessage()));
+        }
+    }
+
+    private void complete(ReservationIntake intake, IntakeTicket ticket) {
+        tickets.put(intake.trackingId(), ticket);
+        if(intake.idempotencyKey() != null && ticket.status() == IntakeStatus.FAILED) {
+            queuedKeys.invalidate(intake.idempotencyKey());
+        }
+    }
+
+    private Optional<IntakeTicket> findTicketForKey(String idempotencyKey, ReservationRequest request) {
+        QueuedKey queued = queuedKeys.getIfPresent(idempotencyKey);
+        if(queued != null) {
+            if(!queued.request().equals(request)) {
+                throw new IdempotencyKeyMismatchException("idempotency key was already used for a different request");
+            }
+            IntakeTicket ticket = tickets.getIfPresent(queued.trackingId());
+            if(ticket != null) {
+                return Optional.of(ticket);
+            }
+        }
+        return idempotencyService.findReplay(idempotencyKey, request)
+                .map(reservation -> new IntakeTicket(null, IntakeStatus.STORED, reservation.id(), null));
+    }
+
+    private record QueuedKey(String trackingId, ReservationRequest request) {
+    }
+}
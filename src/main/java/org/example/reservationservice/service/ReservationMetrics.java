@@ -0,0 +1,48 @@
+package org.example.reservationservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReservationMetrics {
+    private final Counter accepted;
+    private final Counter acceptConflicts;
+    private final Counter rejected;
+    private final Counter cancelled;
+    private final Counter expired;
+    private final Counter slotLookupMisses;
+
+    public ReservationMetrics(MeterRegistry meterRegistry) {
+        accepted = meterRegistry.counter("reservation.accept", "outcome", "accepted");
+        acceptConflicts = meterRegistry.counter("reservation.accept", "outcome", "conflict");
+        rejected = meterRegistry.counter("reservation.reject");
+        cancelled = meterRegistry.counter("reservation.cancel");
+        expired = meterRegistry.counter("reservation.expire");
+        slotLookupMisses = meterRegistry.counter("reservation.slot.lookup.misses");
+    }
+
+    public void accepted() {
+        accepted.increment();
+    }
+
+    public void acceptConflict() {
+        acceptConflicts.increment();
+    }
+
+    public void rejected() {
+        rejected.increment();
+    }
+
+    public void cancelled() {
+        cancelled.increment();
+    }
+
+    public void expired(int count) {
+        expired.increment(count);
+    }
+
+    public void slotLookupMiss() {
+        slotLookupMisses.increment();
+    }
+}
@@ -1,65 +1,158 @@
 package org.example.reservationservice.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.example.reservationservice.config.exception.ReservationConflictException;
 import org.example.reservationservice.config.exception.ReservationException;
 import org.example.reservationservice.config.exception.ScheduleException;
+import org.example.reservationservice.model.CursorPage;
+import org.example.reservationservice.model.OutboxMessage;
+import org.example.reservationservice.model.PendingDeadline;
 import org.example.reservationservice.model.Reservation;
+import org.example.reservationservice.model.ReservationBatchItem;
+import org.example.reservationservice.model.ReservationBatchOutcome;
+import org.example.reservationservice.model.ReservationBatchResult;
+import org.example.reservationservice.model.ReservationDecision;
 import org.example.reservationservice.model.ReservationRequest;
 import org.example.reservationservice.model.ReservationStatus;
+import org.example.reservationservice.model.ReservationView;
 import org.example.reservationservice.model.ScheduleSlot;
+import org.example.reservationservice.repository.OutboxRepository;
+import org.example.reservationservice.repository.ReservationArchiveRepository;
 import org.example.reservationservice.repository.ReservationRepository;
 import org.example.reservationservice.repository.ScheduleRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "reservation.service", histogram = true)
 public class ReservationService {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BATCH_SIZE = 500;
+
     private final ReservationRepository reservationRepository;
+    private final ReservationArchiveRepository reservationArchiveRepository;
     private final ScheduleRepository scheduleRepository;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final AcceptedReservationIndex acceptedReservationIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReservationMetrics reservationMetrics;
+    private final IdempotencyService idempotencyService;
+    private final OutboxRepository outboxRepository;
+    private final PendingExpiryQueue pendingExpiryQueue;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAcceptedIndex() {
+        acceptedReservationIndex.rebuild(reservationRepository.findIntervalsByStatus(ReservationStatus.ACCEPTED));
+    }
 
-    public List<Reservation> findAllByStatus(String status) {
+    @Transactional(readOnly = true)
+    public CursorPage<ReservationView> findAllByStatus(String status, Long cursor, Integer size) {
         ReservationStatus reservationStatus;
         try {
             reservationStatus = ReservationStatus.valueOf(status);
         } catch(IllegalArgumentException ex) {
             throw new ReservationException("wrong status");
         }
-        return reservationRepository.findAll()
-                .stream()
-                .filter(reservation -> reservation.getStatus() == reservationStatus)
-                .toList();
+        int pageSize = pageSize(size);
+        return toPage(reservationRepository.findViewsByStatusAndIdGreaterThan(reservationStatus, startCursor(cursor), Limit.of(pageSize + 1)), pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ReservationView> findAll(Long cursor, Integer size) {
+        int pageSize = pageSize(size);
+        return toPage(reservationRepository.findViewsByIdGreaterThan(startCursor(cursor), Limit.of(pageSize + 1)), pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ReservationView> findArchived(Long cursor, Integer size) {
+        int pageSize = pageSize(size);
+        return toPage(reservationArchiveRepository.findViewsByIdGreaterThan(startCursor(cursor), Limit.of(pageSize + 1)), pageSize);
     }
 
-    public List<Reservation> findAll() {
-        return reservationRepository.findAll();
+    @Transactional
+    public ReservationView saveReservation(ReservationRequest request) {
+        return saveReservation(request, null);
     }
 
     @Transactional
-    public Reservation saveReservation(ReservationRequest request) {
-        Optional<ScheduleSlot> scheduleSlot = scheduleRepository.findByTimeStart(request.timeStart());
-        if(scheduleSlot.isEmpty() || !scheduleSlot.get().isVisible()) {
+    public ReservationView saveReservation(ReservationRequest request, String idempotencyKey) {
+        OptionalLong scheduleSlotId = slotAvailabilityIndex.findVisibleSlotId(ResourceIds.orDefault(request.resourceId()), request.timeStart());
+        if(scheduleSlotId.isEmpty()) {
+            reservationMetrics.slotLookupMiss();
             throw new ScheduleException("incorrect schedule slot");
         }
 
-        Reservation reservation = Reservation.builder()
-                .firstName(request.firstName())
-                .lastName(request.lastName())
-                .email(request.email())
-                .phoneNumber(request.phoneNumber())
-                .status(ReservationStatus.PENDING)
-                .scheduleSlot(scheduleSlot.get())
-                .build();
+        ReservationView saved = ReservationView.of(reservationRepository.save(pendingReservation(request, scheduleSlotId.getAsLong())));
+        TransactionCallbacks.afterCommit(() -> pendingExpiryQueue.add(saved.id(), request.timeStart()));
+        if(idempotencyKey != null) {
+            idempotencyService.record(idempotencyKey, request, saved);
+        }
+        return saved;
+    }
 
-        return reservationRepository.save(reservation);
+    @Transactional
+    public Map<String, Reservation> saveIntakeBatch(List<ReservationIntake> intakes) {
+        Map<String, Reservation> reservations = new LinkedHashMap<>();
+        for(ReservationIntake intake : intakes) {
+            OptionalLong scheduleSlotId = slotAvailabilityIndex.findVisibleSlotId(
+                    ResourceIds.orDefault(intake.request().resourceId()), intake.request().timeStart());
+            if(scheduleSlotId.isEmpty()) {
+                reservationMetrics.slotLookupMiss();
+                continue;
+            }
+            reservations.put(intake.trackingId(), pendingReservation(intake.request(), scheduleSlotId.getAsLong()));
+        }
+
+        reservationRepository.saveAll(reservations.values());
+        List<PendingDeadline> deadlines = new ArrayList<>(reservations.size());
+        for(ReservationIntake intake : intakes) {
+            Reservation reservation = reservations.get(intake.trackingId());
+            if(reservation == null) {
+                continue;
+            }
+            deadlines.add(new PendingDeadline(reservation.getId(), intake.request().timeStart()));
+            if(intake.idempotencyKey() != null) {
+                idempotencyService.record(intake.idempotencyKey(), intake.request(), ReservationView.of(reservation));
+            }
+        }
+        TransactionCallbacks.afterCommit(() -> pendingExpiryQueue.addAll(deadlines));
+        return reservations;
     }
 
     @Transactional
-    public Reservation acceptReservation(Long id, Integer duration) {
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3,
+            backoff = @Backoff(delay = 20, maxDelay = 200, multiplier = 2, random = true))
+    public ReservationView acceptReservation(Long id, Integer duration) {
+        if(duration == null || duration < 1) {
+            throw new ReservationException("wrong duration");
+        }
         Reservation reservation = returnReservationIfExistsOrException(id);
 
         if(!(reservation.getStatus() == ReservationStatus.PENDING)) {
@@ -69,19 +162,31 @@ public class ReservationService {
         reservation.setStatus(ReservationStatus.ACCEPTED);
         reservation.setDurationInMinutes(duration);
 
-        LocalDateTime timeEnd = reservation.getScheduleSlot().getTimeStart().plusMinutes(duration);
-        if(scheduleRepository.findScheduleSlotsByTimeStartBetween(reservation.getScheduleSlot().getTimeStart().plusMinutes(1), timeEnd.minusMinutes(1))
-                .stream().anyMatch(scheduleSet -> !scheduleSet.isVisible())) {
-            throw new ReservationException("reservation conflicts with other reservation");
+        long resourceId = resourceIdOf(reservation);
+        LocalDateTime timeStart = reservation.getScheduleSlot().getTimeStart();
+        LocalDateTime timeEnd = timeStart.plusMinutes(duration);
+        if(!acceptedReservationIndex.tryAdd(resourceId, id, timeStart, timeEnd)) {
+            reservationMetrics.acceptConflict();
+            throw new ReservationConflictException("reservation conflicts with other reservation");
+        }
+        TransactionCallbacks.afterRollback(() -> acceptedReservationIndex.remove(resourceId, id, timeStart));
+        int innerSlots = slotAvailabilityIndex.countInRange(resourceId, timeStart.plusMinutes(1), timeEnd);
+        if(scheduleRepository.updateVisibilityInRange(resourceId, timeStart.plusMinutes(1), timeEnd, false) != innerSlots) {
+            reservationMetrics.acceptConflict();
+            throw new ReservationConflictException("reservation conflicts with other reservation");
         }
-        scheduleRepository.deleteAllByTimeStartBetween(reservation.getScheduleSlot().getTimeStart().plusMinutes(1), timeEnd.minusMinutes(1));
         reservation.getScheduleSlot().setVisible(false);
 
-        return reservationRepository.save(reservation);
+        Reservation saved = reservationRepository.save(reservation);
+        outboxRepository.save(OutboxMessage.of(saved));
+        TransactionCallbacks.afterCommit(() -> slotAvailabilityIndex.setVisibleRange(resourceId, timeStart, timeEnd, false));
+        eventPublisher.publishEvent(new ScheduleSlotsChangedEvent(resourceId, timeStart, timeEnd));
+        reservationMetrics.accepted();
+        return ReservationView.of(saved);
     }
 
     @Transactional
-    public Reservation rejectReservation(Long id) {
+    public ReservationView rejectReservation(Long id) {
         Reservation reservation = returnReservationIfExistsOrException(id);
 
         if(!(reservation.getStatus() == ReservationStatus.PENDING)) {
@@ -90,9 +195,177 @@ public class ReservationService {
 
         reservation.setStatus(ReservationStatus.REJECTED);
 
-        return reservationRepository.save(reservation);
+        Reservation saved = reservationRepository.save(reservation);
+        outboxRepository.save(OutboxMessage.of(saved));
+        reservationMetrics.rejected();
+        return ReservationView.of(saved);
+    }
+
+    @Transactional
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3,
+            backoff = @Backoff(delay = 20, maxDelay = 200, multiplier = 2, random = true))
+    public ReservationView cancelReservation(Long id) {
+        Reservation reservation = returnReservationIfExistsOrException(id);
+
+        if(reservation.getStatus() != ReservationStatus.PENDING && reservation.getStatus() != ReservationStatus.ACCEPTED) {
+            throw new ReservationException("this reservation cannot be cancelled");
+        }
+
+        if(reservation.getStatus() == ReservationStatus.ACCEPTED) {
+            long resourceId = resourceIdOf(reservation);
+            LocalDateTime timeStart = reservation.getScheduleSlot().getTimeStart();
+            LocalDateTime timeEnd = timeStart.plusMinutes(reservation.getDurationInMinutes());
+            scheduleRepository.updateVisibilityInRange(resourceId, timeStart.plusMinutes(1), timeEnd, true);
+            reservation.getScheduleSlot().setVisible(true);
+            TransactionCallbacks.afterCommit(() -> {
+                acceptedReservationIndex.remove(resourceId, id, timeStart);
+                slotAvailabilityIndex.setVisibleRange(resourceId, timeStart, timeEnd, true);
+            });
+            eventPublisher.publishEvent(new ScheduleSlotsChangedEvent(resourceId, timeStart, timeEnd));
+        }
+        reservation.setStatus(ReservationStatus.CANCELLED);
+
+        Reservation saved = reservationRepository.save(reservation);
+        reservationMetrics.cancelled();
+        return ReservationView.of(saved);
+    }
+
+    @Transactional
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3,
+            backoff = @Backoff(delay = 20, maxDelay = 200, multiplier = 2, random = true))
+    public List<ReservationBatchResult> moderateReservations(List<ReservationBatchItem> items) {
+        if(items == null || items.isEmpty()) {
+            throw new ReservationException("empty batch");
+        }
+        if(items.size() > MAX_BATCH_SIZE) {
+            throw new ReservationException("batch too large");
+        }
+
+        Map<Long, Reservation> reservations = reservationRepository.findAllWithScheduleSlotByIdIn(
+                        items.stream().map(ReservationBatchItem::id).filter(Objects::nonNull).toList())
+                .stream()
+                .collect(Collectors.toMap(Reservation::getId, Function.identity()));
+
+        Map<ReservationBatchItem, ReservationBatchResult> results = new IdentityHashMap<>();
+        Set<Long> seenIds = new HashSet<>();
+        List<ReservationBatchItem> accepts = new ArrayList<>();
+        for(ReservationBatchItem item : items) {
+            Reservation reservation = reservations.get(item.id());
+            if(item.id() == null || item.decision() == null || !seenIds.add(item.id())) {
+                results.put(item, new ReservationBatchResult(item.id(), ReservationBatchOutcome.INVALID, "wrong batch item"));
+            } else if(reservation == null) {
+                results.put(item, new ReservationBatchResult(item.id(), ReservationBatchOutcome.NOT_FOUND, "reservation not found"));
+            } else if(reservation.getStatus() != ReservationStatus.PENDING) {
+                results.put(item, new ReservationBatchResult(item.id(), ReservationBatchOutcome.INVALID, "reservation is not pending"));
+            } else if(item.decision() == ReservationDecision.REJECT) {
+                reservation.setStatus(ReservationStatus.REJECTED);
+                reservationMetrics.rejected();
+                results.put(item, new ReservationBatchResult(item.id(), ReservationBatchOutcome.REJECTED, null));
+            } else if(item.duration() == null || item.duration() < 1) {
+                results.put(item, new ReservationBatchResult(item.id(), ReservationBatchOutcome.INVALID, "wrong duration"));
+            } else {
+                accepts.add(item);
+            }
+        }
+
+        accepts.stream()
+                .collect(Collectors.groupingBy(item -> resourceIdOf(reservations.get(item.id())), TreeMap::new, Collectors.toList()))
+                .forEach((resourceId, resourceAccepts) -> acceptInStartOrder(resourceId, resourceAccepts, reservations, results));
+        List<ReservationBatchResult> ordered = items.stream().map(results::get).toList();
+        List<OutboxMessage> notifications = ordered.stream()
+                .filter(result -> result.outcome() == ReservationBatchOutcome.ACCEPTED || result.outcome() == ReservationBatchOutcome.REJECTED)
+                .map(result -> OutboxMessage.of(reservations.get(result.id())))
+                .toList();
+        if(!notifications.isEmpty()) {
+            outboxRepository.saveAll(notifications);
+        }
+        return ordered;
+    }
+
+    private void acceptInStartOrder(long resourceId, List<ReservationBatchItem> accepts, Map<Long, Reservation> reservations,
+                                    Map<ReservationBatchItem, ReservationBatchResult> results) {
+        accepts.sort(Comparator.comparing((ReservationBatchItem item) -> reservations.get(item.id()).getScheduleSlot().getTimeStart())
+                .thenComparing(ReservationBatchItem::id));
+        LocalDateTime rangeStart = reservations.get(accepts.get(0).id()).getScheduleSlot().getTimeStart();
+        LocalDateTime rangeEnd = accepts.stream()
+                .map(item -> reservations.get(item.id()).getScheduleSlot().getTimeStart().plusMinutes(item.duration()))
+                .max(Comparator.naturalOrder())
+                .orElseThrow();
+        NavigableMap<LocalDateTime, ScheduleSlot> slots = new TreeMap<>();
+        scheduleRepository.findScheduleSlotsByResourceIdAndTimeStartBetween(resourceId, rangeStart, rangeEnd.minusMinutes(1))
+                .forEach(slot -> slots.put(slot.getTimeStart(), slot));
+
+        List<AcceptedRange> acceptedRanges = new ArrayList<>();
+        TransactionCallbacks.afterRollback(() -> acceptedRanges.forEach(range ->
+                acceptedReservationIndex.remove(resourceId, range.reservationId(), range.timeStart())));
+        for(ReservationBatchItem item : accepts) {
+            Reservation reservation = reservations.get(item.id());
+            LocalDateTime timeStart = reservation.getScheduleSlot().getTimeStart();
+            LocalDateTime timeEnd = timeStart.plusMinutes(item.duration());
+            ScheduleSlot startSlot = slots.get(timeStart);
+            Collection<ScheduleSlot> inner = slots.subMap(timeStart, false, timeEnd, false).values();
+            if(startSlot == null || !startSlot.isVisible() || inner.stream().anyMatch(slot -> !slot.isVisible())
+                    || !acceptedReservationIndex.tryAdd(resourceId, item.id(), timeStart, timeEnd)) {
+                reservationMetrics.acceptConflict();
+                results.put(item, new ReservationBatchResult(item.id(), ReservationBatchOutcome.CONFLICT, "reservation conflicts with other reservation"));
+                continue;
+            }
+            acceptedRanges.add(new AcceptedRange(item.id(), timeStart, timeEnd));
+            inner.forEach(slot -> slot.setVisible(false));
+            startSlot.setVisible(false);
+            reservation.setStatus(ReservationStatus.ACCEPTED);
+            reservation.setDurationInMinutes(item.duration());
+            reservationMetrics.accepted();
+            results.put(item, new ReservationBatchResult(item.id(), ReservationBatchOutcome.ACCEPTED, null));
+        }
+
+        TransactionCallbacks.afterCommit(() -> acceptedRanges.forEach(range ->
+                slotAvailabilityIndex.setVisibleRange(resourceId, range.timeStart(), range.timeEnd(), false)));
+        eventPublisher.publishEvent(new ScheduleSlotsChangedEvent(resourceId, rangeStart, rangeEnd));
+    }
+
+    private Reservation pendingReservation(ReservationRequest request, long scheduleSlotId) {
+        return Reservation.builder()
+                .resourceId(ResourceIds.orDefault(request.resourceId()))
+                .firstName(request.firstName())
+                .lastName(request.lastName())
+                .email(request.email())
+                .phoneNumber(request.phoneNumber())
+                .status(ReservationStatus.PENDING)
+                .scheduleSlot(scheduleRepository.getReferenceById(scheduleSlotId))
+                .build();
+    }
+
+    private long resourceIdOf(Reservation reservation) {
+        return ResourceIds.orDefault(reservation.getScheduleSlot().getResourceId());
+    }
+
+    private int pageSize(Integer size) {
+        if(size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if(size < 1) {
+            throw new ReservationException("wrong page size");
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    private long startCursor(Long cursor) {
+        return cursor == null ? 0L : cursor;
     }
+
+    private CursorPage<ReservationView> toPage(List<ReservationView> reservations, int pageSize) {
+        if(reservations.size() <= pageSize) {
+            return new CursorPage<>(reservations, null);
+        }
+        List<ReservationView> content = reservations.subList(0, pageSize);
+        return new CursorPage<>(content, content.get(pageSize - 1).id());
+    }
+
     private Reservation returnReservationIfExistsOrException(Long id) {
-        return reservationRepository.findById(id).orElseThrow(() -> new ReservationException("reservation not found"));
+        return reservationRepository.findWithScheduleSlotById(id).orElseThrow(() -> new ReservationException("reservation not found"));
+    }
+
+    private record AcceptedRange(Long reservationId, LocalDateTime timeStart, LocalDateTime timeEnd) {
     }
 }
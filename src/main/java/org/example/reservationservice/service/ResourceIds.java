@@ -0,0 +1,13 @@
+package org.example.reservationservice.service;
+
+import org.example.reservationservice.model.ScheduleSlot;
+
+final class ResourceIds {
+
+    private ResourceIds() {
+    }
+
+    static long orDefault(Long resourceId) {
+        return resourceId == null ? ScheduleSlot.DEFAULT_RESOURCE_ID : resourceId;
+    }
+}
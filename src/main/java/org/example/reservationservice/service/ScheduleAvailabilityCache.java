@@ -0,0 +1,59 @@
+package org.example.reservationservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.reservationservice.model.ScheduleSlotView;
+import org.example.reservationservice.repository.ScheduleRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class ScheduleAvailabilityCache {
+    public static final String CACHE_NAME = "availability";
+
+    private final ScheduleRepository scheduleRepository;
+    private final CacheManager cacheManager;
+
+    public List<ScheduleSlotView> findInWindow(long resourceId, LocalDateTime from, LocalDateTime to, boolean visibleOnly) {
+        Cache cache = cache();
+        List<ScheduleSlotView> result = new ArrayList<>();
+        for(LocalDate day = from.toLocalDate(); day.atStartOfDay().isBefore(to); day = day.plusDays(1)) {
+            LocalDate cachedDay = day;
+            List<ScheduleSlotView> daySlots = cache.get(new DayKey(resourceId, day), () -> scheduleRepository.findViewsInWindow(
+                    resourceId, cachedDay.atStartOfDay(), cachedDay.plusDays(1).atStartOfDay(), false));
+            for(ScheduleSlotView slot : daySlots) {
+                if(!slot.timeStart().isBefore(from) && slot.timeStart().isBefore(to) && (!visibleOnly || slot.visible())) {
+                    result.add(slot);
+                }
+            }
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleSlotsChanged(ScheduleSlotsChangedEvent event) {
+        Cache cache = cache();
+        LocalDate lastDay = event.to().minusNanos(1).toLocalDate();
+        for(LocalDate day = event.from().toLocalDate(); !day.isAfter(lastDay); day = day.plusDays(1)) {
+            cache.evict(new DayKey(event.resourceId(), day));
+        }
+    }
+
+    private Cache cache() {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if(cache == null) {
+            throw new IllegalStateException("cache " + CACHE_NAME + " is not configured");
+        }
+        return cache;
+    }
+
+    private record DayKey(long resourceId, LocalDate day) {
+    }
+}
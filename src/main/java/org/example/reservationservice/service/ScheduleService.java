@@ -1,40 +1,164 @@
 package org.example.reservationservice.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.example.reservationservice.config.exception.ScheduleException;
+import org.example.reservationservice.model.FreeWindow;
+import org.example.reservationservice.model.ScheduleGenerationRequest;
+import org.example.reservationservice.model.ScheduleGenerationResult;
 import org.example.reservationservice.model.ScheduleSlot;
 import org.example.reservationservice.model.ScheduleSlotRequest;
+import org.example.reservationservice.model.ScheduleSlotView;
+import org.example.reservationservice.model.SlotAvailability;
 import org.example.reservationservice.repository.ScheduleRepository;
+import org.example.reservationservice.repository.ScheduleSlotArchiveRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "schedule.service", histogram = true)
 public class ScheduleService {
+    private static final int MAX_GENERATED_SLOTS = 50_000;
+    private static final int DEFAULT_WINDOW_IN_DAYS = 7;
+    private static final int MAX_WINDOW_IN_DAYS = 31;
+    private static final int DEFAULT_FREE_WINDOWS = 5;
+    private static final int MAX_FREE_WINDOWS = 50;
 
     private final ScheduleRepository scheduleRepository;
+    private final ScheduleSlotArchiveRepository scheduleSlotArchiveRepository;
+    private final SlotAvailabilityIndex slotAvailabilityIndex;
+    private final ScheduleAvailabilityCache scheduleAvailabilityCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAvailabilityIndex() {
+        slotAvailabilityIndex.rebuild(scheduleRepository.findAllAvailability());
+    }
 
     public ScheduleSlot saveSchedule(ScheduleSlotRequest request) {
+        long resourceId = ResourceIds.orDefault(request.resourceId());
         ScheduleSlot schedule = ScheduleSlot.builder()
+                .resourceId(resourceId)
                 .timeStart(request.timeStart())
                 .isVisible(true)
                 .build();
 
-        if(scheduleRepository.existsByTimeStart(schedule.getTimeStart())) {
+        if(slotAvailabilityIndex.contains(resourceId, schedule.getTimeStart())
+                || scheduleRepository.existsByResourceIdAndTimeStart(resourceId, schedule.getTimeStart())) {
             throw new ScheduleException("schedule slot already exists");
         }
 
-        return scheduleRepository.save(schedule);
+        ScheduleSlot saved = scheduleRepository.save(schedule);
+        TransactionCallbacks.afterCommit(() ->
+                slotAvailabilityIndex.put(new SlotAvailability(saved.getId(), resourceId, saved.getTimeStart(), saved.isVisible())));
+        eventPublisher.publishEvent(new ScheduleSlotsChangedEvent(resourceId, saved.getTimeStart(), saved.getTimeStart().plusMinutes(1)));
+        return saved;
+    }
+
+    @Transactional
+    public ScheduleGenerationResult generateSchedules(ScheduleGenerationRequest request) {
+        List<LocalDateTime> timeStarts = generateTimeStarts(request);
+        if(timeStarts.isEmpty()) {
+            return new ScheduleGenerationResult(0, 0);
+        }
+
+        long resourceId = ResourceIds.orDefault(request.resourceId());
+        Set<LocalDateTime> existing = new HashSet<>(
+                scheduleRepository.findTimeStartsBetween(resourceId, timeStarts.get(0), timeStarts.get(timeStarts.size() - 1)));
+        List<ScheduleSlot> schedules = timeStarts.stream()
+                .filter(timeStart -> !existing.contains(timeStart))
+                .map(timeStart -> ScheduleSlot.builder()
+                        .resourceId(resourceId)
+                        .timeStart(timeStart)
+                        .isVisible(true)
+                        .build())
+                .toList();
+
+        List<ScheduleSlot> saved = scheduleRepository.saveAll(schedules);
+        TransactionCallbacks.afterCommit(() -> slotAvailabilityIndex.putAll(saved.stream()
+                .map(schedule -> new SlotAvailability(schedule.getId(), resourceId, schedule.getTimeStart(), schedule.isVisible()))
+                .toList()));
+        if(!saved.isEmpty()) {
+            eventPublisher.publishEvent(new ScheduleSlotsChangedEvent(resourceId,
+                    saved.get(0).getTimeStart(), saved.get(saved.size() - 1).getTimeStart().plusMinutes(1)));
+        }
+        return new ScheduleGenerationResult(saved.size(), timeStarts.size() - saved.size());
+    }
+
+    public List<ScheduleSlotView> findInWindow(Long resourceId, LocalDateTime from, LocalDateTime to, boolean visibleOnly) {
+        LocalDateTime windowStart = from == null ? LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES) : from;
+        LocalDateTime windowEnd = to == null ? windowStart.plusDays(DEFAULT_WINDOW_IN_DAYS) : to;
+        if(!windowStart.isBefore(windowEnd) || windowStart.plusDays(MAX_WINDOW_IN_DAYS).isBefore(windowEnd)) {
+            throw new ScheduleException("incorrect time window");
+        }
+        return scheduleAvailabilityCache.findInWindow(ResourceIds.orDefault(resourceId), windowStart, windowEnd, visibleOnly);
+    }
+
+    public List<FreeWindow> findFreeWindows(Long resourceId, LocalDateTime from, Integer durationInMinutes,
+                                            Integer count) {
+        int limit = count == null ? DEFAULT_FREE_WINDOWS : count;
+        if(durationInMinutes == null || durationInMinutes < 1 || limit < 1 || limit > MAX_FREE_WINDOWS) {
+            throw new ScheduleException("incorrect free window search");
+        }
+        LocalDateTime windowStart = from == null ? LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES) : from;
+        return slotAvailabilityIndex.findFreeWindowStarts(ResourceIds.orDefault(resourceId), windowStart,
+                        windowStart.plusDays(MAX_WINDOW_IN_DAYS), durationInMinutes, limit)
+                .stream()
+                .map(timeStart -> new FreeWindow(timeStart, timeStart.plusMinutes(durationInMinutes)))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<ScheduleSlotView> findArchivedInWindow(Long resourceId, LocalDateTime from, LocalDateTime to) {
+        if(from == null || to == null || !from.isBefore(to) || from.plusDays(MAX_WINDOW_IN_DAYS).isBefore(to)) {
+            throw new ScheduleException("incorrect time window");
+        }
+        return scheduleSlotArchiveRepository.findViewsInWindow(ResourceIds.orDefault(resourceId), from, to);
     }
 
-    public List<ScheduleSlot> findAll() {
-        return scheduleRepository.findAll();
+    private List<LocalDateTime> generateTimeStarts(ScheduleGenerationRequest request) {
+        if(request.dateFrom() == null || request.dateTo() == null || request.hourFrom() == null || request.hourTo() == null
+                || request.stepInMinutes() == null || request.stepInMinutes() < 1
+                || request.dateFrom().isAfter(request.dateTo()) || !request.hourFrom().isBefore(request.hourTo())) {
+            throw new ScheduleException("incorrect schedule generation request");
+        }
+
+        int minuteFrom = request.hourFrom().toSecondOfDay() / 60;
+        int minuteTo = request.hourTo().toSecondOfDay() / 60;
+        List<LocalDateTime> timeStarts = new ArrayList<>();
+        for(LocalDate date = request.dateFrom(); !date.isAfter(request.dateTo()); date = date.plusDays(1)) {
+            if(request.weekdays() != null && !request.weekdays().isEmpty() && !request.weekdays().contains(date.getDayOfWeek())) {
+                continue;
+            }
+            for(int minute = minuteFrom; minute < minuteTo; minute += request.stepInMinutes()) {
+                timeStarts.add(date.atStartOfDay().plusMinutes(minute));
+                if(timeStarts.size() > MAX_GENERATED_SLOTS) {
+                    throw new ScheduleException("too many schedule slots requested");
+                }
+            }
+        }
+        return timeStarts;
     }
 
     public void deleteSchedule(Long id) {
         Optional<ScheduleSlot> scheduleOptional = scheduleRepository.findById(id);
-        scheduleRepository.delete(scheduleOptional.orElseThrow(() -> new ScheduleException("wrong schedule slot id")));
+        ScheduleSlot schedule = scheduleOptional.orElseThrow(() -> new ScheduleException("wrong schedule slot id"));
+        long resourceId = ResourceIds.orDefault(schedule.getResourceId());
+        scheduleRepository.delete(schedule);
+        TransactionCallbacks.afterCommit(() -> slotAvailabilityIndex.remove(resourceId, schedule.getTimeStart()));
+        eventPublisher.publishEvent(new ScheduleSlotsChangedEvent(resourceId, schedule.getTimeStart(), schedule.getTimeStart().plusMinutes(1)));
     }
 }
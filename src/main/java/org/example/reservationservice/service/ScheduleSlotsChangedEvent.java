@@ -0,0 +1,6 @@
+package org.example.reservationservice.service;
+
+import java.time.LocalDateTime;
+
+public record ScheduleSlotsChangedEvent(long resourceId, LocalDateTime from, LocalDateTime to) {
+}
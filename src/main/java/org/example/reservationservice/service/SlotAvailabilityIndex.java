@@ -0,0 +1,400 @@
+package org.example.reservationservice.service;
+
+import org.example.reservationservice.model.ScheduleSlotView;
+import org.example.reservationservice.model.SlotAvailability;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory, time-ordered view of schedule slot visibility, partitioned by resource. Each resource has its own
+ * timeline of parallel arrays sorted by epoch minute of the slot start, guarded by its own lock, so point lookups
+ * and range checks are binary searches and bookings on different resources never contend. The slot length of a
+ * resource is the spacing of its grid, i.e. the smallest distance between two of its slots.
+ */
+@Component
+public class SlotAvailabilityIndex {
+    private final ConcurrentMap<Long, Timeline> timelines = new ConcurrentHashMap<>();
+
+    public void rebuild(Collection<SlotAvailability> slots) {
+        Map<Long, List<SlotAvailability>> byResource = slots.stream()
+                .collect(Collectors.groupingBy(SlotAvailability::resourceId));
+        byResource.forEach((resourceId, resourceSlots) -> timeline(resourceId).rebuild(resourceSlots));
+        timelines.keySet().retainAll(byResource.keySet());
+    }
+
+    public void putAll(Collection<SlotAvailability> slots) {
+        slots.stream()
+                .collect(Collectors.groupingBy(SlotAvailability::resourceId))
+                .forEach((resourceId, resourceSlots) -> timeline(resourceId).putAll(resourceSlots));
+    }
+
+    public void put(SlotAvailability slot) {
+        timeline(slot.resourceId()).put(slot);
+    }
+
+    public boolean isVisible(long resourceId, LocalDateTime timeStart) {
+        return findVisibleSlotId(resourceId, timeStart).isPresent();
+    }
+
+    public OptionalLong findVisibleSlotId(long resourceId, LocalDateTime timeStart) {
+        Timeline timeline = timelines.get(resourceId);
+        return timeline == null ? OptionalLong.empty() : timeline.findVisibleSlotId(timeStart);
+    }
+
+    public boolean contains(long resourceId, LocalDateTime timeStart) {
+        Timeline timeline = timelines.get(resourceId);
+        return timeline != null && timeline.contains(timeStart);
+    }
+
+    public boolean anyInvisibleInRange(long resourceId, LocalDateTime fromInclusive, LocalDateTime toExclusive) {
+        Timeline timeline = timelines.get(resourceId);
+        return timeline != null && timeline.anyInvisibleInRange(fromInclusive, toExclusive);
+    }
+
+    public int countInRange(long resourceId, LocalDateTime fromInclusive, LocalDateTime toExclusive) {
+        Timeline timeline = timelines.get(resourceId);
+        return timeline == null ? 0 : timeline.countInRange(fromInclusive, toExclusive);
+    }
+
+    public List<ScheduleSlotView> findInRange(long resourceId, LocalDateTime fromInclusive, LocalDateTime toExclusive) {
+        Timeline timeline = timelines.get(resourceId);
+        return timeline == null ? List.of() : timeline.findInRange(fromInclusive, toExclusive);
+    }
+
+    public List<LocalDateTime> findFreeWindowStarts(long resourceId, LocalDateTime fromInclusive, LocalDateTime toExclusive,
+                                                    int durationInMinutes, int limit) {
+        Timeline timeline = timelines.get(resourceId);
+        return timeline == null ? List.of() : timeline.findFreeWindowStarts(fromInclusive, toExclusive, durationInMinutes, limit);
+    }
+
+    public void setVisible(long resourceId, LocalDateTime timeStart, boolean isVisible) {
+        Timeline timeline = timelines.get(resourceId);
+        if(timeline != null) {
+            timeline.setVisible(timeStart, isVisible);
+        }
+    }
+
+    public void setVisibleRange(long resourceId, LocalDateTime fromInclusive, LocalDateTime toExclusive, boolean isVisible) {
+        Timeline timeline = timelines.get(resourceId);
+        if(timeline != null) {
+            timeline.setVisibleRange(fromInclusive, toExclusive, isVisible);
+        }
+    }
+
+    public void remove(long resourceId, LocalDateTime timeStart) {
+        removeRange(resourceId, timeStart, timeStart.plusMinutes(1));
+    }
+
+    public void removeRange(long resourceId, LocalDateTime fromInclusive, LocalDateTime toExclusive) {
+        Timeline timeline = timelines.get(resourceId);
+        if(timeline != null) {
+            timeline.removeRange(fromInclusive, toExclusive);
+        }
+    }
+
+    public int size() {
+        return timelines.values().stream().mapToInt(Timeline::size).sum();
+    }
+
+    static long toKey(LocalDateTime timeStart) {
+        return timeStart.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    static LocalDateTime fromKey(long minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+    }
+
+    private Timeline timeline(long resourceId) {
+        return timelines.computeIfAbsent(resourceId, id -> new Timeline());
+    }
+
+    private static final class Timeline {
+        private static final int INITIAL_CAPACITY = 64;
+        private static final long DEFAULT_STEP_IN_MINUTES = 15;
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private long[] minutes = new long[INITIAL_CAPACITY];
+        private long[] ids = new long[INITIAL_CAPACITY];
+        private boolean[] visible = new boolean[INITIAL_CAPACITY];
+        private int size;
+        private long step = DEFAULT_STEP_IN_MINUTES;
+
+        void rebuild(Collection<SlotAvailability> slots) {
+            SlotAvailability[] sorted = sortByTimeStart(slots);
+            int capacity = Math.max(INITIAL_CAPACITY, sorted.length);
+            long[] newMinutes = new long[capacity];
+            long[] newIds = new long[capacity];
+            boolean[] newVisible = new boolean[capacity];
+            for(int i = 0; i < sorted.length; i++) {
+                newMinutes[i] = toKey(sorted[i].timeStart());
+                newIds[i] = sorted[i].id();
+                newVisible[i] = sorted[i].visible();
+            }
+            lock.writeLock().lock();
+            try {
+                minutes = newMinutes;
+                ids = newIds;
+                visible = newVisible;
+                size = sorted.length;
+                updateStep();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void putAll(Collection<SlotAvailability> slots) {
+            SlotAvailability[] sorted = sortByTimeStart(slots);
+            lock.writeLock().lock();
+            try {
+                int capacity = Math.max(INITIAL_CAPACITY, size + sorted.length);
+                long[] newMinutes = new long[capacity];
+                long[] newIds = new long[capacity];
+                boolean[] newVisible = new boolean[capacity];
+                int i = 0;
+                int j = 0;
+                int k = 0;
+                while(i < size || j < sorted.length) {
+                    long key = j < sorted.length ? toKey(sorted[j].timeStart()) : Long.MAX_VALUE;
+                    if(i < size && minutes[i] < key) {
+                        newMinutes[k] = minutes[i];
+                        newIds[k] = ids[i];
+                        newVisible[k] = visible[i];
+                        i++;
+                    } else {
+                        if(i < size && minutes[i] == key) {
+                            i++;
+                        }
+                        newMinutes[k] = key;
+                        newIds[k] = sorted[j].id();
+                        newVisible[k] = sorted[j].visible();
+                        j++;
+                    }
+                    k++;
+                }
+                minutes = newMinutes;
+                ids = newIds;
+                visible = newVisible;
+                size = k;
+                updateStep();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        OptionalLong findVisibleSlotId(LocalDateTime timeStart) {
+            lock.readLock().lock();
+            try {
+                int position = search(toKey(timeStart));
+                if(position < 0 || !visible[position]) {
+                    return OptionalLong.empty();
+                }
+                return OptionalLong.of(ids[position]);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        boolean contains(LocalDateTime timeStart) {
+            lock.readLock().lock();
+            try {
+                return search(toKey(timeStart)) >= 0;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        boolean anyInvisibleInRange(LocalDateTime fromInclusive, LocalDateTime toExclusive) {
+            lock.readLock().lock();
+            try {
+                long end = toKey(toExclusive);
+                for(int i = lowerBound(toKey(fromInclusive)); i < size && minutes[i] < end; i++) {
+                    if(!visible[i]) {
+                        return true;
+                    }
+                }
+                return false;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        List<ScheduleSlotView> findInRange(LocalDateTime fromInclusive, LocalDateTime toExclusive) {
+            lock.readLock().lock();
+            try {
+                long end = toKey(toExclusive);
+                List<ScheduleSlotView> slots = new ArrayList<>();
+                for(int i = lowerBound(toKey(fromInclusive)); i < size && minutes[i] < end; i++) {
+                    slots.add(new ScheduleSlotView(ids[i], fromKey(minutes[i]), visible[i]));
+                }
+                return slots;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        List<LocalDateTime> findFreeWindowStarts(LocalDateTime fromInclusive, LocalDateTime toExclusive,
+                                                 int durationInMinutes, int limit) {
+            lock.readLock().lock();
+            try {
+                long to = toKey(toExclusive);
+                long scanEnd = to + durationInMinutes;
+                List<LocalDateTime> starts = new ArrayList<>();
+                int runStart = -1;
+                for(int i = lowerBound(toKey(fromInclusive)); i < size && minutes[i] < scanEnd; i++) {
+                    if(!visible[i]) {
+                        runStart = -1;
+                        continue;
+                    }
+                    if(runStart < 0 || minutes[i] - minutes[i - 1] != step) {
+                        runStart = i;
+                    }
+                    while(runStart <= i && minutes[i] + step - minutes[runStart] >= durationInMinutes) {
+                        if(minutes[runStart] >= to) {
+                            return starts;
+                        }
+                        starts.add(fromKey(minutes[runStart]));
+                        if(starts.size() == limit) {
+                            return starts;
+                        }
+                        runStart++;
+                    }
+                }
+                return starts;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void put(SlotAvailability slot) {
+            long key = toKey(slot.timeStart());
+            lock.writeLock().lock();
+            try {
+                int position = search(key);
+                if(position >= 0) {
+                    ids[position] = slot.id();
+                    visible[position] = slot.visible();
+                    return;
+                }
+                int insertAt = -position - 1;
+                ensureCapacity(size + 1);
+                System.arraycopy(minutes, insertAt, minutes, insertAt + 1, size - insertAt);
+                System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+                System.arraycopy(visible, insertAt, visible, insertAt + 1, size - insertAt);
+                minutes[insertAt] = key;
+                ids[insertAt] = slot.id();
+                visible[insertAt] = slot.visible();
+                size++;
+                updateStep();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void setVisible(LocalDateTime timeStart, boolean isVisible) {
+            lock.writeLock().lock();
+            try {
+                int position = search(toKey(timeStart));
+                if(position >= 0) {
+                    visible[position] = isVisible;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void setVisibleRange(LocalDateTime fromInclusive, LocalDateTime toExclusive, boolean isVisible) {
+            lock.writeLock().lock();
+            try {
+                long end = toKey(toExclusive);
+                for(int i = lowerBound(toKey(fromInclusive)); i < size && minutes[i] < end; i++) {
+                    visible[i] = isVisible;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        int countInRange(LocalDateTime fromInclusive, LocalDateTime toExclusive) {
+            lock.readLock().lock();
+            try {
+                return Math.max(0, lowerBound(toKey(toExclusive)) - lowerBound(toKey(fromInclusive)));
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void removeRange(LocalDateTime fromInclusive, LocalDateTime toExclusive) {
+            lock.writeLock().lock();
+            try {
+                int from = lowerBound(toKey(fromInclusive));
+                int to = lowerBound(toKey(toExclusive));
+                if(from >= to) {
+                    return;
+                }
+                System.arraycopy(minutes, to, minutes, from, size - to);
+                System.arraycopy(ids, to, ids, from, size - to);
+                System.arraycopy(visible, to, visible, from, size - to);
+                size -= to - from;
+                updateStep();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return size;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private static SlotAvailability[] sortByTimeStart(Collection<SlotAvailability> slots) {
+            SlotAvailability[] sorted = slots.toArray(SlotAvailability[]::new);
+            Arrays.sort(sorted, Comparator.comparing(SlotAvailability::timeStart));
+            return sorted;
+        }
+
+        private void updateStep() {
+            long minGap = Long.MAX_VALUE;
+            for(int i = 1; i < size; i++) {
+                minGap = Math.min(minGap, minutes[i] - minutes[i - 1]);
+            }
+            step = minGap == Long.MAX_VALUE ? DEFAULT_STEP_IN_MINUTES : minGap;
+        }
+
+        private int search(long key) {
+            return Arrays.binarySearch(minutes, 0, size, key);
+        }
+
+        private int lowerBound(long key) {
+            int position = search(key);
+            return position >= 0 ? position : -position - 1;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if(capacity <= minutes.length) {
+                return;
+            }
+            int newCapacity = Math.max(capacity, minutes.length * 2);
+            minutes = Arrays.copyOf(minutes, newCapacity);
+            ids = Arrays.copyOf(ids, newCapacity);
+            visible = Arrays.copyOf(visible, newCapacity);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.reservationservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.example.reservationservice.config.exception.ReservationException;
+import org.example.reservationservice.model.DailyBookedMinutes;
+import org.example.reservationservice.model.DailySlotUsage;
+import org.example.reservationservice.model.PeriodStatistics;
+import org.example.reservationservice.model.ReservationStatistics;
+import org.example.reservationservice.model.ReservationStatus;
+import org.example.reservationservice.model.StatusCount;
+import org.example.reservationservice.repository.ReservationRepository;
+import org.example.reservationservice.repository.ScheduleRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+public class StatisticsService {
+    private static final int MAX_WINDOW_IN_DAYS = 366;
+
+    private final ReservationRepository reservationRepository;
+    private final ScheduleRepository scheduleRepository;
+    private final Cache<StatisticsKey, ReservationStatistics> statistics;
+
+    public StatisticsService(ReservationRepository reservationRepository,
+                             ScheduleRepository scheduleRepository,
+                             @Value("${reservation.statistics.maximum-size:1000}") long maximumSize,
+                             @Value("${reservation.statistics.time-to-live:30s}") Duration timeToLive) {
+        this.reservationRepository = reservationRepository;
+        this.scheduleRepository = scheduleRepository;
+        this.statistics = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public ReservationStatistics findStatistics(Long resourceId, LocalDate from, LocalDate to) {
+        if(from == null || to == null || from.isAfter(to) || from.plusDays(MAX_WINDOW_IN_DAYS).isBefore(to)) {
+            throw new ReservationException("incorrect time window");
+        }
+        return statistics.get(new StatisticsKey(ResourceIds.orDefault(resourceId), from, to), this::compute);
+    }
+
+    private ReservationStatistics compute(StatisticsKey key) {
+        LocalDateTime windowStart = key.from().atStartOfDay();
+        LocalDateTime windowEnd = key.to().plusDays(1).atStartOfDay();
+
+        Map<ReservationStatus, Long> byStatus = new EnumMap<>(ReservationStatus.class);
+        for(ReservationStatus status : ReservationStatus.values()) {
+            byStatus.put(status, 0L);
+        }
+        for(StatusCount count : reservationRepository.countByStatusInWindow(key.resourceId(), windowStart, windowEnd)) {
+            byStatus.put(count.status(), count.count());
+        }
+
+        TreeMap<LocalDate, Totals> days = new TreeMap<>();
+        for(DailyBookedMinutes booked : reservationRepository.sumDurationByDay(ReservationStatus.ACCEPTED, key.resourceId(), windowStart, windowEnd)) {
+            days.computeIfAbsent(booked.day(), day -> new Totals()).bookedMinutes += valueOf(booked.bookedMinutes());
+        }
+        for(DailySlotUsage usage : scheduleRepository.findDailyUsage(key.resourceId(), windowStart, windowEnd)) {
+            Totals totals = days.computeIfAbsent(usage.day(), day -> new Totals());
+            totals.slots += valueOf(usage.slots());
+            totals.unavailableSlots += valueOf(usage.unavailableSlots());
+        }
+
+        Totals total = new Totals();
+        TreeMap<LocalDate, Totals> weeks = new TreeMap<>();
+        List<PeriodStatistics> daily = new ArrayList<>(days.size());
+        days.forEach((day, totals) -> {
+            daily.add(totals.toStatistics(day));
+            total.add(totals);
+            weeks.computeIfAbsent(day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)), week -> new Totals()).add(totals);
+        });
+        List<PeriodStatistics> weekly = new ArrayList<>(weeks.size());
+        weeks.forEach((week, totals) -> weekly.add(totals.toStatistics(week)));
+
+        return new ReservationStatistics(key.resourceId(), key.from(), key.to(), byStatus, total.toStatistics(key.from()), daily, weekly);
+    }
+
+    private static long valueOf(Long value) {
+        return value == null ? 0L : value;
+    }
+
+    private record StatisticsKey(long resourceId, LocalDate from, LocalDate to) {
+    }
+
+    private static final class Totals {
+        private long bookedMinutes;
+        private long slots;
+        private long unavailableSlots;
+
+        void add(Totals other) {
+            bookedMinutes += other.bookedMinutes;
+            slots += other.slots;
+            unavailableSlots += other.unavailableSlots;
+        }
+
+        PeriodStatistics toStatistics(LocalDate start) {
+            return new PeriodStatistics(start, bookedMinutes, slots, unavailableSlots,
+                    slots == 0 ? 0.0 : (double) unavailableSlots / slots);
+        }
+    }
+}
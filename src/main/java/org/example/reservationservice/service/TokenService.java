@@ -0,0 +1,41 @@
+package org.example.reservationservice.service;
+
+import org.example.reservationservice.model.AccessToken;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Service
+public class TokenService {
+    private static final String ISSUER = "reservation-service";
+
+    private final JwtEncoder jwtEncoder;
+    private final Duration timeToLive;
+
+    public TokenService(JwtEncoder jwtEncoder,
+                        @Value("${reservation.auth.token-time-to-live:15m}") Duration timeToLive) {
+        this.jwtEncoder = jwtEncoder;
+        this.timeToLive = timeToLive;
+    }
+
+    public AccessToken issue(Authentication authentication) {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer(ISSUER)
+                .subject(authentication.getName())
+                .issuedAt(now)
+                .expiresAt(now.plus(timeToLive))
+                .build();
+        String token = jwtEncoder.encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims))
+                .getTokenValue();
+        return new AccessToken(token, "Bearer", timeToLive.toSeconds());
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.reservationservice.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class CachingJwtDecoderTest {
+    private static final Instant NOW = Instant.parse("2024-10-08T12:00:00Z");
+
+    @Mock
+    private JwtDecoder delegate;
+    @Mock
+    private Clock clock;
+    private CachingJwtDecoder underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new CachingJwtDecoder(delegate, Duration.ofMinutes(5), clock);
+    }
+
+    @Test
+    void Decode_SameTokenTwice_ShouldVerifySignatureOnce() {
+        Jwt jwt = jwt(NOW.plusSeconds(60));
+        given(delegate.decode("token")).willReturn(jwt);
+        given(clock.instant()).willReturn(NOW);
+
+        Jwt first = underTest.decode("token");
+        Jwt second = underTest.decode("token");
+
+        assertThat(first).isSameAs(jwt);
+        assertThat(second).isSameAs(jwt);
+        verify(delegate).decode("token");
+    }
+
+    @Test
+    void Decode_CachedTokenExpired_ShouldVerifyAgainAndReject() {
+        given(delegate.decode("token")).willReturn(jwt(NOW.plusSeconds(60))).willThrow(new BadJwtException("expired"));
+        given(clock.instant()).willReturn(NOW.plusSeconds(61));
+
+        underTest.decode("token");
+
+        assertThatThrownBy(() -> underTest.decode("token")).isInstanceOf(BadJwtException.class);
+        verify(delegate, times(2)).decode("token");
+    }
+
+    private static Jwt jwt(Instant expiresAt) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .subject("admin")
+                .issuedAt(NOW)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.reservationservice.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+    private final AtomicLong clock = new AtomicLong();
+    private RateLimitFilter underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new RateLimitFilter(List.of(new RateLimitRule(HttpMethod.POST, "/api/reservations/**", 2, 1)), clock::get);
+    }
+
+    @Test
+    void DoFilter_BurstExhausted_ShouldRejectWithRetryAfter() throws Exception {
+        assertThat(status(request("POST", "/api/reservations", "10.0.0.1"))).isEqualTo(200);
+        assertThat(status(request("POST", "/api/reservations", "10.0.0.1"))).isEqualTo(200);
+
+        MockHttpServletResponse actual = filter(request("POST", "/api/reservations", "10.0.0.1"));
+
+        assertThat(actual.getStatus()).isEqualTo(429);
+        assertThat(actual.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    }
+
+    @Test
+    void DoFilter_TokensRefilled_ShouldAcceptAgain() throws Exception {
+        filter(request("POST", "/api/reservations", "10.0.0.1"));
+        filter(request("POST", "/api/reservations", "10.0.0.1"));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(status(request("POST", "/api/reservations", "10.0.0.1"))).isEqualTo(200);
+        assertThat(status(request("POST", "/api/reservations", "10.0.0.1"))).isEqualTo(429);
+    }
+
+    @Test
+    void DoFilter_OtherClientOrUnlimitedRoute_ShouldNotBeLimited() throws Exception {
+        filter(request("POST", "/api/reservations", "10.0.0.1"));
+        filter(request("POST", "/api/reservations", "10.0.0.1"));
+
+        assertThat(status(request("POST", "/api/reservations", "10.0.0.2"))).isEqualTo(200);
+        assertThat(status(request("GET", "/api/schedules", "10.0.0.1"))).isEqualTo(200);
+    }
+
+    private int status(MockHttpServletRequest request) throws Exception {
+        return filter(request).getStatus();
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        underTest.doFilter(request, response, (servletRequest, servletResponse) -> {});
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setServletPath(uri);
+        request.setRemoteAddr(remoteAddress);
+        return request;
+    }
+}
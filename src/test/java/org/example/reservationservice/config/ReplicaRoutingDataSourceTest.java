@@ -0,0 +1,108 @@
+package org.example.reservationservice.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTest {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        LazyConnectionDataSourceProxy underTest = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(underTest);
+        jdbcTemplate = new JdbcTemplate(underTest);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void GetConnection_ReadOnlyTransaction_ShouldUseReplica() {
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void GetConnection_ReadWriteTransactionOrNoTransaction_ShouldUsePrimary() {
+        assertThat(nodeIn(readWrite)).isEqualTo("primary");
+        assertThat(node()).isEqualTo("primary");
+    }
+
+    @Test
+    void GetConnection_ReadOnlyTransactionPinnedToPrimary_ShouldUsePrimary() {
+        ReplicaRoutingDataSource.pinToPrimary(true);
+        try {
+            assertThat(nodeIn(readOnly)).isEqualTo("primary");
+        } finally {
+            ReplicaRoutingDataSource.pinToPrimary(false);
+        }
+
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void DoFilter_ReadAfterOwnWrite_ShouldUsePrimaryOnlyForThatClient() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofMinutes(1));
+        List<String> nodes = new ArrayList<>();
+
+        filter.doFilter(request("POST", "10.0.0.1"), new MockHttpServletResponse(), (request, response) -> {});
+        filter.doFilter(request("GET", "10.0.0.1"), new MockHttpServletResponse(), (request, response) -> nodes.add(nodeIn(readOnly)));
+        filter.doFilter(request("GET", "10.0.0.2"), new MockHttpServletResponse(), (request, response) -> nodes.add(nodeIn(readOnly)));
+
+        assertThat(nodes).containsExactly("primary", "replica");
+        assertThat(nodeIn(readOnly)).isEqualTo("replica");
+    }
+
+    private String nodeIn(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status -> node());
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("select name from node", String.class);
+    }
+
+    private static MockHttpServletRequest request(String method, String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/reservations");
+        request.setRemoteAddr(remoteAddress);
+        return request;
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("create table node (name varchar(16))");
+        jdbcTemplate.update("insert into node (name) values (?)", name);
+        return database;
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.reservationservice.repository;
+
+import org.example.reservationservice.model.Reservation;
+import org.example.reservationservice.model.ReservationStatus;
+import org.example.reservationservice.model.ReservationView;
+import org.example.reservationservice.model.ScheduleSlot;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class ReservationArchiveRepositoryTest {
+
+    @Autowired
+    private ReservationArchiveRepository underTest;
+    @Autowired
+    private ReservationRepository reservationRepository;
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Test
+    void CopyFromReservations_ReservationWithScheduleSlot_ShouldKeepSlotTimeInArchive() {
+        LocalDateTime timeStart = LocalDateTime.of(2024, 6, 8, 20, 0);
+        ScheduleSlot scheduleSlot = scheduleRepository.save(ScheduleSlot.builder()
+                .resourceId(ScheduleSlot.DEFAULT_RESOURCE_ID)
+                .timeStart(timeStart)
+                .isVisible(false)
+                .build());
+        Reservation reservation = reservationRepository.save(Reservation.builder()
+                .resourceId(ScheduleSlot.DEFAULT_RESOURCE_ID)
+                .firstName("firstName")
+                .status(ReservationStatus.ACCEPTED)
+                .scheduleSlot(scheduleSlot)
+                .durationInMinutes(30)
+                .build());
+
+        int copied = underTest.copyFromReservations(List.of(reservation.getId()), LocalDateTime.now());
+        reservationRepository.deleteAllByIds(List.of(reservation.getId()));
+        List<ReservationView> actual = underTest.findViewsByIdGreaterThan(0L, Limit.of(10));
+
+        assertThat(copied).isEqualTo(1);
+        assertThat(reservationRepository.findViewById(reservation.getId())).isEmpty();
+        assertThat(actual).containsExactly(new ReservationView(reservation.getId(), ScheduleSlot.DEFAULT_RESOURCE_ID, "firstName",
+                null, null, null, ReservationStatus.ACCEPTED, scheduleSlot.getId(), timeStart, 30));
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.reservationservice.repository;
+
+import org.example.reservationservice.model.AcceptedInterval;
+import org.example.reservationservice.model.DailyBookedMinutes;
+import org.example.reservationservice.model.PendingDeadline;
+import org.example.reservationservice.model.Reservation;
+import org.example.reservationservice.model.ReservationStatus;
+import org.example.reservationservice.model.ReservationView;
+import org.example.reservationservice.model.ScheduleSlot;
+import org.example.reservationservice.model.StatusCount;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class ReservationRepositoryTest {
+
+    @Autowired
+    private ReservationRepository underTest;
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Test
+    void FindViewsByStatusAndIdGreaterThan_MixedStatuses_ShouldReturnOnlyMatchingStatusOrderedById() {
+        Reservation pending1 = underTest.save(Reservation.builder().status(ReservationStatus.PENDING).build());
+        underTest.save(Reservation.builder().status(ReservationStatus.ACCEPTED).build());
+        Reservation pending2 = underTest.save(Reservation.builder().status(ReservationStatus.PENDING).build());
+
+        List<ReservationView> actual = underTest.findViewsByStatusAndIdGreaterThan(ReservationStatus.PENDING, 0L, Limit.of(10));
+
+        assertThat(actual).extracting(ReservationView::id).containsExactly(pending1.getId(), pending2.getId());
+    }
+
+    @Test
+    void FindViewsByStatusAndIdGreaterThan_CursorAndLimitGiven_ShouldReturnNextPage() {
+        underTest.save(Reservation.builder().status(ReservationStatus.PENDING).build());
+        Reservation pending2 = underTest.save(Reservation.builder().status(ReservationStatus.PENDING).build());
+        Reservation pending3 = underTest.save(Reservation.builder().status(ReservationStatus.PENDING).build());
+        underTest.save(Reservation.builder().status(ReservationStatus.PENDING).build());
+
+        List<ReservationView> actual = underTest.findViewsByStatusAndIdGreaterThan(ReservationStatus.PENDING, pending2.getId() - 1, Limit.of(2));
+
+        assertThat(actual).extracting(ReservationView::id).containsExactly(pending2.getId(), pending3.getId());
+    }
+
+    @Test
+    void FindViewsByIdGreaterThan_ReservationWithScheduleSlot_ShouldIncludeSlotTimeStart() {
+        LocalDateTime timeStart = LocalDateTime.of(2024, 10, 8, 20, 0);
+        ScheduleSlot scheduleSlot = scheduleRepository.save(ScheduleSlot.builder()
+                .resourceId(ScheduleSlot.DEFAULT_RESOURCE_ID)
+                .timeStart(timeStart)
+                .isVisible(true)
+                .build());
+        Reservation reservation = underTest.save(Reservation.builder()
+                .resourceId(ScheduleSlot.DEFAULT_RESOURCE_ID)
+                .firstName("firstName")
+                .status(ReservationStatus.PENDING)
+                .scheduleSlot(scheduleSlot)
+                .build());
+
+        List<ReservationView> actual = underTest.findViewsByIdGreaterThan(0L, Limit.of(10));
+
+        assertThat(actual).containsExactly(new ReservationView(reservation.getId(), ScheduleSlot.DEFAULT_RESOURCE_ID, "firstName",
+                null, null, null, ReservationStatus.PENDING, scheduleSlot.getId(), timeStart, null));
+    }
+
+    @Test
+    void CountByStatusInWindowAndSumDurationByDay_ReservationsOnTwoDays_ShouldAggregatePerStatusAndDay() {
+        LocalDateTime day = LocalDateTime.of(2024, 10, 8, 9, 0);
+        reservation(day, ReservationStatus.ACCEPTED, 60);
+        reservation(day.plusHours(2), ReservationStatus.ACCEPTED, 30);
+        reservation(day.plusDays(1), ReservationStatus.ACCEPTED, 45);
+        reservation(day.plusDays(1).plusHours(1), ReservationStatus.PENDING, null);
+        reservation(day.plusDays(5), ReservationStatus.ACCEPTED, 15);
+
+        List<StatusCount> counts = underTest.countByStatusInWindow(ScheduleSlot.DEFAULT_RESOURCE_ID, day.toLocalDate().atStartOfDay(),
+                day.toLocalDate().plusDays(2).atStartOfDay());
+        List<DailyBookedMinutes> booked = underTest.sumDurationByDay(ReservationStatus.ACCEPTED, ScheduleSlot.DEFAULT_RESOURCE_ID,
+                day.toLocalDate().atStartOfDay(), day.toLocalDate().plusDays(2).atStartOfDay());
+
+        assertThat(counts).containsExactlyInAnyOrder(new StatusCount(ReservationStatus.ACCEPTED, 3L), new StatusCount(ReservationStatus.PENDING, 1L));
+        assertThat(booked).containsExactlyInAnyOrder(new DailyBookedMinutes(LocalDate.of(2024, 10, 8), 90L),
+                new DailyBookedMinutes(LocalDate.of(2024, 10, 9), 45L));
+    }
+
+    @Test
+    void FindDeadlinesByStatusStartingBefore_PendingReservationsAroundHorizon_ShouldReturnOnlyEarlierPendingOnes() {
+        LocalDateTime now = LocalDateTime.of(2024, 10, 8, 9, 0);
+        Reservation due = reservation(now.minusMinutes(30), ReservationStatus.PENDING, null);
+        reservation(now.plusMinutes(30), ReservationStatus.ACCEPTED, 30);
+        reservation(now.plusHours(2), ReservationStatus.PENDING, null);
+
+        List<PendingDeadline> actual = underTest.findDeadlinesByStatusStartingBefore(ReservationStatus.PENDING, now.plusHours(1));
+
+        assertThat(actual).containsExactly(new PendingDeadline(due.getId(), now.minusMinutes(30)));
+    }
+
+    @Test
+    void FindIntervalsByStatusInStartingBefore_PendingAndFinishedReservations_ShouldReturnOnlyFinishedOnes() {
+        LocalDateTime before = LocalDateTime.of(2024, 10, 8, 9, 0);
+        Reservation accepted = reservation(before.minusDays(2), ReservationStatus.ACCEPTED, 30);
+        reservation(before.minusDays(1), ReservationStatus.PENDING, 30);
+        Reservation expired = reservation(before.minusHours(1), ReservationStatus.EXPIRED, 45);
+        reservation(before.plusHours(1), ReservationStatus.ACCEPTED, 30);
+
+        List<AcceptedInterval> actual = underTest.findIntervalsByStatusInStartingBefore(
+                EnumSet.of(ReservationStatus.ACCEPTED, ReservationStatus.EXPIRED), before, Limit.of(10));
+
+        assertThat(actual).containsExactly(
+                new AcceptedInterval(accepted.getId(), ScheduleSlot.DEFAULT_RESOURCE_ID, before.minusDays(2), 30),
+                new AcceptedInterval(expired.getId(), ScheduleSlot.DEFAULT_RESOURCE_ID, before.minusHours(1), 45));
+    }
+
+    private Reservation reservation(LocalDateTime timeStart, ReservationStatus status, Integer durationInMinutes) {
+        ScheduleSlot scheduleSlot = scheduleRepository.save(ScheduleSlot.builder()
+                .resourceId(ScheduleSlot.DEFAULT_RESOURCE_ID)
+                .timeStart(timeStart)
+                .isVisible(status != ReservationStatus.ACCEPTED)
+                .build());
+        return underTest.save(Reservation.builder()
+                .resourceId(ScheduleSlot.DEFAULT_RESOURCE_ID)
+                .status(status)
+                .scheduleSlot(scheduleSlot)
+                .durationInMinutes(durationInMinutes)
+                .build());
+    }
+}
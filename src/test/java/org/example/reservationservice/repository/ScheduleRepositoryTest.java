@@ -1,72 +1,81 @@
 package org.example.reservationservice.repository;
 
+import org.example.reservationservice.model.DailySlotUsage;
 import org.example.reservationservice.model.ScheduleSlot;
+import org.example.reservationservice.model.ScheduleSlotView;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
-import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.Assertions.assertThat;
 @DataJpaTest
 class ScheduleRepositoryTest {
+    private static final Long RESOURCE_ID = 1L;
 
     @Autowired
     private ScheduleRepository underTest;
 
     @Test
-    void ExistsByTimeStart_ScheduleSetExists_True() {
+    void ExistsByResourceIdAndTimeStart_ScheduleSetExists_True() {
         LocalDateTime timeStart = LocalDateTime.of(2024,9,8,15,0);
         ScheduleSlot scheduleSlot = ScheduleSlot.builder()
+                .resourceId(RESOURCE_ID)
                 .timeStart(timeStart)
                 .isVisible(true)
                 .build();
         underTest.save(scheduleSlot);
 
-        Boolean actual = underTest.existsByTimeStart(timeStart);
+        Boolean actual = underTest.existsByResourceIdAndTimeStart(RESOURCE_ID, timeStart);
 
         assertThat(actual).isTrue();
     }
 
     @Test
-    void ExistsByTimeStart_ScheduleSetDoesntExist_False() {
+    void ExistsByResourceIdAndTimeStart_ScheduleSetDoesntExist_False() {
         LocalDateTime timeStart = LocalDateTime.of(2024,9,8,15,0);
 
-        Boolean actual = underTest.existsByTimeStart(timeStart);
+        Boolean actual = underTest.existsByResourceIdAndTimeStart(RESOURCE_ID, timeStart);
 
         assertThat(actual).isFalse();
     }
 
     @Test
-    void FindByTimeStart_ScheduleSetExists_ReturnCorrectScheduleSlot() {
+    void FindByResourceIdAndTimeStart_ScheduleSetExists_ReturnCorrectScheduleSlot() {
         LocalDateTime timeStart = LocalDateTime.of(2024,9,8,15,0);
         ScheduleSlot scheduleSlot = ScheduleSlot.builder()
+                .resourceId(RESOURCE_ID)
                 .timeStart(timeStart)
                 .isVisible(true)
                 .build();
         underTest.save(scheduleSlot);
 
-        Optional<ScheduleSlot> actual = underTest.findByTimeStart(timeStart);
+        Optional<ScheduleSlot> actual = underTest.findByResourceIdAndTimeStart(RESOURCE_ID, timeStart);
 
         assertThat(actual.get()).isNotNull().isEqualTo(scheduleSlot);
     }
 
     @Test
-    void DeleteAllByTimeStartBetween_DeleteTwoOfThreeScheduleSlots_ShouldDeleteTwoScheduleSlots() {
+    void DeleteAllByResourceIdAndTimeStartBetween_DeleteTwoOfThreeScheduleSlots_ShouldDeleteTwoScheduleSlots() {
         LocalDateTime timeStart1 = LocalDateTime.of(2024,9,8,15,0);
         ScheduleSlot scheduleSlot1 = ScheduleSlot.builder()
+                .resourceId(RESOURCE_ID)
                 .timeStart(timeStart1)
                 .isVisible(true)
                 .build();
         LocalDateTime timeStart2 = LocalDateTime.of(2024,9,8,16,0);
         ScheduleSlot scheduleSlot2 = ScheduleSlot.builder()
+                .resourceId(RESOURCE_ID)
                 .timeStart(timeStart2)
                 .isVisible(true)
                 .build();
         LocalDateTime timeStart3 = LocalDateTime.of(2024,9,8,17,0);
         ScheduleSlot scheduleSlot3 = ScheduleSlot.builder()
+                .resourceId(RESOURCE_ID)
                 .timeStart(timeStart3)
                 .isVisible(true)
                 .build();
@@ -74,7 +83,7 @@ class ScheduleRepositoryTest {
         underTest.save(scheduleSlot2);
         underTest.save(scheduleSlot3);
 
-        underTest.deleteAllByTimeStartBetween(timeStart1, timeStart2);
+        underTest.deleteAllByResourceIdAndTimeStartBetween(RESOURCE_ID, timeStart1, timeStart2);
         List<ScheduleSlot> scheduleSlots = underTest.findAll();
 
         assertThat(scheduleSlots.size()).isEqualTo(1);
@@ -82,9 +91,10 @@ class ScheduleRepositoryTest {
     }
 
     @Test
-    void FindScheduleSlotsByTimeStartBetween_FindOneScheduleSlotFrom_ShouldReturnCorrectScheduleSlot() {
+    void FindScheduleSlotsByResourceIdAndTimeStartBetween_FindOneScheduleSlotFrom_ShouldReturnCorrectScheduleSlot() {
         LocalDateTime timeStart = LocalDateTime.of(2024,9,8,15,0);
         ScheduleSlot scheduleSlot = ScheduleSlot.builder()
+                .resourceId(RESOURCE_ID)
                 .timeStart(timeStart)
                 .isVisible(true)
                 .build();
@@ -92,9 +102,54 @@ class ScheduleRepositoryTest {
         LocalDateTime timeStart1 = LocalDateTime.of(2024,9,8,14,0);
         LocalDateTime timeStart2 = LocalDateTime.of(2024,9,8,16,0);
 
-        List<ScheduleSlot> actual = underTest.findScheduleSlotsByTimeStartBetween(timeStart1, timeStart2);
+        List<ScheduleSlot> actual = underTest.findScheduleSlotsByResourceIdAndTimeStartBetween(RESOURCE_ID, timeStart1, timeStart2);
 
         assertThat(actual.size()).isEqualTo(1);
         assertThat(actual).isEqualTo(List.of(scheduleSlot));
     }
-}
\ No newline at end of file
+
+    @Test
+    void FindViewsInWindow_VisibleOnly_ShouldReturnVisibleSlotsInsideHalfOpenWindow() {
+        LocalDateTime timeStart1 = LocalDateTime.of(2024,9,8,15,0);
+        LocalDateTime timeStart2 = LocalDateTime.of(2024,9,8,16,0);
+        LocalDateTime timeStart3 = LocalDateTime.of(2024,9,8,17,0);
+        ScheduleSlot scheduleSlot1 = underTest.save(ScheduleSlot.builder().resourceId(RESOURCE_ID).timeStart(timeStart1).isVisible(true).build());
+        underTest.save(ScheduleSlot.builder().resourceId(RESOURCE_ID).timeStart(timeStart2).isVisible(false).build());
+        underTest.save(ScheduleSlot.builder().resourceId(RESOURCE_ID).timeStart(timeStart3).isVisible(true).build());
+
+        List<ScheduleSlotView> actual = underTest.findViewsInWindow(RESOURCE_ID, timeStart1, timeStart3, true);
+
+        assertThat(actual).isEqualTo(List.of(new ScheduleSlotView(scheduleSlot1.getId(), timeStart1, true)));
+    }
+
+    @Test
+    void UpdateVisibilityInRange_SameTimeOnOtherResource_ShouldOnlyHideSlotsOfGivenResource() {
+        LocalDateTime timeStart = LocalDateTime.of(2024,9,8,15,0);
+        underTest.save(ScheduleSlot.builder().resourceId(RESOURCE_ID).timeStart(timeStart).isVisible(true).build());
+        ScheduleSlot otherSlot = underTest.save(ScheduleSlot.builder().resourceId(2L).timeStart(timeStart).isVisible(true).build());
+        underTest.flush();
+
+        int actual = underTest.updateVisibilityInRange(RESOURCE_ID, timeStart, timeStart.plusHours(1), false);
+
+        assertThat(actual).isEqualTo(1);
+        assertThat(underTest.existsByResourceIdAndTimeStart(2L, timeStart)).isTrue();
+        assertThat(underTest.findViewsInWindow(RESOURCE_ID, timeStart, timeStart.plusHours(1), true)).isEqualTo(List.of());
+        assertThat(underTest.findViewsInWindow(2L, timeStart, timeStart.plusHours(1), true))
+                .isEqualTo(List.of(new ScheduleSlotView(otherSlot.getId(), timeStart, true)));
+    }
+
+    @Test
+    void FindDailyUsage_SlotsOnTwoDays_ShouldCountSlotsAndUnavailableSlotsPerDay() {
+        LocalDateTime day = LocalDateTime.of(2024, 10, 8, 9, 0);
+        underTest.save(ScheduleSlot.builder().resourceId(RESOURCE_ID).timeStart(day).isVisible(false).build());
+        underTest.save(ScheduleSlot.builder().resourceId(RESOURCE_ID).timeStart(day.plusHours(1)).isVisible(true).build());
+        underTest.save(ScheduleSlot.builder().resourceId(RESOURCE_ID).timeStart(day.plusDays(1)).isVisible(true).build());
+        underTest.save(ScheduleSlot.builder().resourceId(2L).timeStart(day).isVisible(false).build());
+
+        List<DailySlotUsage> actual = underTest.findDailyUsage(RESOURCE_ID, day.toLocalDate().atStartOfDay(),
+                day.toLocalDate().plusDays(2).atStartOfDay());
+
+        assertThat(actual).containsExactlyInAnyOrder(new DailySlotUsage(LocalDate.of(2024, 10, 8), 2L, 1L),
+                new DailySlotUsage(LocalDate.of(2024, 10, 9), 1L, 0L));
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.reservationservice.service;
+
+import org.example.reservationservice.model.AcceptedInterval;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AcceptedReservationIndexTest {
+
+    private static final long RESOURCE_ID = 1L;
+    private static final LocalDateTime DATE = LocalDateTime.of(2024, 10, 8, 20, 0);
+
+    private AcceptedReservationIndex underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new AcceptedReservationIndex();
+    }
+
+    @Test
+    void Overlaps_RangesAroundAcceptedReservation_ShouldRespectHalfOpenBounds() {
+        underTest.rebuild(List.of(
+                new AcceptedInterval(2L, RESOURCE_ID, DATE.plusMinutes(120), 30),
+                new AcceptedInterval(1L, RESOURCE_ID, DATE, 60)));
+
+        assertThat(underTest.overlaps(RESOURCE_ID, DATE.minusMinutes(30), DATE)).isFalse();
+        assertThat(underTest.overlaps(RESOURCE_ID, DATE.plusMinutes(60), DATE.plusMinutes(120))).isFalse();
+        assertThat(underTest.overlaps(RESOURCE_ID, DATE.plusMinutes(59), DATE.plusMinutes(61))).isTrue();
+        assertThat(underTest.overlaps(RESOURCE_ID, DATE.minusMinutes(30), DATE.plusMinutes(180))).isTrue();
+        assertThat(underTest.overlaps(RESOURCE_ID, DATE.plusMinutes(130), DATE.plusMinutes(140))).isTrue();
+    }
+
+    @Test
+    void TryAdd_OverlappingRange_ShouldKeepFirstReservation() {
+        assertThat(underTest.tryAdd(RESOURCE_ID, 1L, DATE, DATE.plusMinutes(60))).isTrue();
+        assertThat(underTest.tryAdd(RESOURCE_ID, 2L, DATE.plusMinutes(30), DATE.plusMinutes(90))).isFalse();
+        assertThat(underTest.tryAdd(RESOURCE_ID, 3L, DATE.plusMinutes(60), DATE.plusMinutes(90))).isTrue();
+
+        assertThat(underTest.size()).isEqualTo(2);
+    }
+
+    @Test
+    void TryAdd_EmptyRangeOrTakenStart_ShouldKeepFirstReservation() {
+        assertThat(underTest.tryAdd(RESOURCE_ID, 1L, DATE, DATE.plusMinutes(60))).isTrue();
+        assertThat(underTest.tryAdd(RESOURCE_ID, 2L, DATE, DATE)).isFalse();
+        assertThat(underTest.tryAdd(RESOURCE_ID, 3L, DATE.plusMinutes(90), DATE.plusMinutes(90))).isFalse();
+
+        assertThat(underTest.size()).isEqualTo(1);
+        assertThat(underTest.overlaps(RESOURCE_ID, DATE.plusMinutes(59), DATE.plusMinutes(60))).isTrue();
+    }
+
+    @Test
+    void Remove_OtherReservationAtSameStart_ShouldKeepRange() {
+        underTest.tryAdd(RESOURCE_ID, 1L, DATE, DATE.plusMinutes(60));
+
+        underTest.remove(RESOURCE_ID, 2L, DATE);
+        assertThat(underTest.overlaps(RESOURCE_ID, DATE, DATE.plusMinutes(1))).isTrue();
+
+        underTest.remove(RESOURCE_ID, 1L, DATE);
+        assertThat(underTest.overlaps(RESOURCE_ID, DATE, DATE.plusMinutes(1))).isFalse();
+    }
+
+    @Test
+    void TryAdd_SameRangeOnDifferentResources_ShouldNotConflict() {
+        assertThat(underTest.tryAdd(RESOURCE_ID, 1L, DATE, DATE.plusMinutes(60))).isTrue();
+        assertThat(underTest.tryAdd(2L, 2L, DATE, DATE.plusMinutes(60))).isTrue();
+
+        assertThat(underTest.overlaps(3L, DATE, DATE.plusMinutes(60))).isFalse();
+    }
+}
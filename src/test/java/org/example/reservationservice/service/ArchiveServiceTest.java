@@ -0,0 +1,104 @@
+package org.example.reservationservice.service;
+
+import org.example.reservationservice.model.AcceptedInterval;
+import org.example.reservationservice.model.ReservationStatus;
+import org.example.reservationservice.model.SlotAvailability;
+import org.example.reservationservice.repository.ReservationArchiveRepository;
+import org.example.reservationservice.repository.ReservationRepository;
+import org.example.reservationservice.repository.ScheduleRepository;
+import org.example.reservationservice.repository.ScheduleSlotArchiveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ArchiveServiceTest {
+    private static final long RESOURCE_ID = 1L;
+    private static final LocalDateTime BEFORE = LocalDateTime.of(2024, 7, 1, 0, 0);
+
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private ScheduleRepository scheduleRepository;
+    @Mock
+    private ReservationArchiveRepository reservationArchiveRepository;
+    @Mock
+    private ScheduleSlotArchiveRepository scheduleSlotArchiveRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+    private AcceptedReservationIndex acceptedReservationIndex;
+    private ArchiveService underTest;
+
+    @BeforeEach
+    void setUp() {
+        slotAvailabilityIndex = new SlotAvailabilityIndex();
+        acceptedReservationIndex = new AcceptedReservationIndex();
+        underTest = new ArchiveService(reservationRepository, scheduleRepository, reservationArchiveRepository,
+                scheduleSlotArchiveRepository, slotAvailabilityIndex, acceptedReservationIndex, eventPublisher);
+    }
+
+    @Test
+    void ArchiveReservations_ChunkFound_ShouldCopyDeleteAndReleaseAcceptedRange() {
+        LocalDateTime timeStart = BEFORE.minusDays(1);
+        acceptedReservationIndex.tryAdd(RESOURCE_ID, 7L, timeStart, timeStart.plusMinutes(30));
+        given(reservationRepository.findIntervalsByStatusInStartingBefore(
+                EnumSet.of(ReservationStatus.ACCEPTED, ReservationStatus.REJECTED, ReservationStatus.CANCELLED, ReservationStatus.EXPIRED),
+                BEFORE, Limit.of(100)))
+                .willReturn(List.of(new AcceptedInterval(7L, RESOURCE_ID, timeStart, 30)));
+
+        int actual = underTest.archiveReservations(BEFORE, 100);
+
+        assertThat(actual).isEqualTo(1);
+        verify(reservationArchiveRepository).copyFromReservations(any(), any());
+        verify(reservationRepository).deleteAllByIds(List.of(7L));
+        assertThat(acceptedReservationIndex.overlaps(RESOURCE_ID, timeStart, timeStart.plusMinutes(30))).isFalse();
+    }
+
+    @Test
+    void ArchiveReservations_NothingToArchive_ShouldNotTouchTables() {
+        given(reservationRepository.findIntervalsByStatusInStartingBefore(
+                EnumSet.of(ReservationStatus.ACCEPTED, ReservationStatus.REJECTED, ReservationStatus.CANCELLED, ReservationStatus.EXPIRED),
+                BEFORE, Limit.of(100))).willReturn(List.of());
+
+        int actual = underTest.archiveReservations(BEFORE, 100);
+
+        assertThat(actual).isEqualTo(0);
+        verify(reservationArchiveRepository, never()).copyFromReservations(anyCollection(), any());
+        verify(reservationRepository, never()).deleteAllByIds(anyCollection());
+    }
+
+    @Test
+    void ArchiveSchedules_ChunkFound_ShouldRemoveSlotsFromIndexAndPublishEvent() {
+        LocalDateTime first = BEFORE.minusDays(2);
+        LocalDateTime last = BEFORE.minusDays(1);
+        List<SlotAvailability> slots = List.of(new SlotAvailability(1L, RESOURCE_ID, first, true),
+                new SlotAvailability(2L, RESOURCE_ID, last, false));
+        slotAvailabilityIndex.putAll(slots);
+        given(scheduleRepository.findUnreservedAvailabilityBefore(BEFORE, Limit.of(100))).willReturn(slots);
+
+        int actual = underTest.archiveSchedules(BEFORE, 100);
+
+        assertThat(actual).isEqualTo(2);
+        verify(scheduleSlotArchiveRepository).copyFromSchedules(any(), any());
+        verify(scheduleRepository).deleteAllByIds(List.of(1L, 2L));
+        verify(eventPublisher).publishEvent(new ScheduleSlotsChangedEvent(RESOURCE_ID, first, last.plusMinutes(1)));
+        assertThat(slotAvailabilityIndex.contains(RESOURCE_ID, first)).isFalse();
+        assertThat(slotAvailabilityIndex.contains(RESOURCE_ID, last)).isFalse();
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.reservationservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.reservationservice.model.SlotAvailability;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AvailabilityFeedTest {
+    private static final long RESOURCE_ID = 1L;
+    private static final LocalDateTime TIME_START = LocalDateTime.of(2024, 10, 8, 9, 0);
+
+    private final List<Runnable> pendingSends = new ArrayList<>();
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+    private AvailabilityFeed underTest;
+
+    @BeforeEach
+    void setUp() {
+        slotAvailabilityIndex = new SlotAvailabilityIndex();
+        underTest = new AvailabilityFeed(slotAvailabilityIndex, new ObjectMapper().findAndRegisterModules(),
+                new SimpleMeterRegistry(), pendingSends::add, 2, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void OnScheduleSlotsChanged_SubscriberOfResource_ShouldReceiveSlotsOfChangedRange() {
+        slotAvailabilityIndex.putAll(List.of(new SlotAvailability(1L, RESOURCE_ID, TIME_START, false),
+                new SlotAvailability(2L, RESOURCE_ID, TIME_START.plusMinutes(15), true)));
+        RecordingEmitter subscriber = new RecordingEmitter();
+        RecordingEmitter otherResource = new RecordingEmitter();
+        underTest.subscribe(RESOURCE_ID, subscriber);
+        underTest.subscribe(2L, otherResource);
+
+        underTest.onScheduleSlotsChanged(new ScheduleSlotsChangedEvent(RESOURCE_ID, TIME_START, TIME_START.plusMinutes(15)));
+        sendPending();
+
+        assertThat(subscriber.sent).hasSize(1);
+        assertThat(subscriber.sent.get(0)).contains("event:availability", "\"id\":1", "\"visible\":false", "\"timeStart\":\"2024-10-08 09:00\"")
+                .doesNotContain("\"id\":2");
+        assertThat(otherResource.sent).isEmpty();
+    }
+
+    @Test
+    void OnScheduleSlotsChanged_SubscriberBufferFull_ShouldDropOnlySlowSubscriber() {
+        RecordingEmitter slow = new RecordingEmitter();
+        underTest.subscribe(RESOURCE_ID, slow);
+        ScheduleSlotsChangedEvent event = new ScheduleSlotsChangedEvent(RESOURCE_ID, TIME_START, TIME_START.plusMinutes(15));
+
+        underTest.onScheduleSlotsChanged(event);
+        underTest.onScheduleSlotsChanged(event);
+        underTest.onScheduleSlotsChanged(event);
+        RecordingEmitter fast = new RecordingEmitter();
+        underTest.subscribe(RESOURCE_ID, fast);
+        underTest.onScheduleSlotsChanged(event);
+        sendPending();
+
+        assertThat(slow.completed).isTrue();
+        assertThat(slow.sent).isEmpty();
+        assertThat(fast.completed).isFalse();
+        assertThat(fast.sent).hasSize(1);
+    }
+
+    private void sendPending() {
+        while(!pendingSends.isEmpty()) {
+            pendingSends.remove(0).run();
+        }
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> sent = new ArrayList<>();
+        private boolean completed;
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            sent.add(items.stream().map(item -> item.getData().toString()).collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
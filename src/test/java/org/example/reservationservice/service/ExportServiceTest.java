@@ -0,0 +1,63 @@
+package org.example.reservationservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.example.reservationservice.model.ScheduleSlot;
+import org.example.reservationservice.repository.ReservationRepository;
+import org.example.reservationservice.repository.ScheduleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private ScheduleRepository scheduleRepository;
+    @Mock
+    private EntityManager entityManager;
+    private ExportService underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new ExportService(reservationRepository, scheduleRepository, entityManager, new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Test
+    void ExportSchedules_TwoScheduleSlots_ShouldWriteOneJsonLinePerSlotAndDetachThem() throws IOException {
+        ScheduleSlot scheduleSlot1 = ScheduleSlot.builder()
+                .id(1L)
+                .timeStart(LocalDateTime.of(2024, 10,8,20,0))
+                .isVisible(true)
+                .build();
+        ScheduleSlot scheduleSlot2 = ScheduleSlot.builder()
+                .id(2L)
+                .timeStart(LocalDateTime.of(2024, 10,8,21,0))
+                .isVisible(false)
+                .build();
+        given(scheduleRepository.streamAll()).willReturn(Stream.of(scheduleSlot1, scheduleSlot2));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        underTest.exportSchedules(outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"id\":1").contains("\"timeStart\":\"2024-10-08 20:00\"");
+        assertThat(lines[1]).contains("\"id\":2").contains("\"visible\":false");
+        verify(entityManager).detach(scheduleSlot1);
+        verify(entityManager).detach(scheduleSlot2);
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.reservationservice.service;
+
+import org.example.reservationservice.config.exception.IdempotencyKeyMismatchException;
+import org.example.reservationservice.config.exception.ReservationConflictException;
+import org.example.reservationservice.config.exception.ReservationException;
+import org.example.reservationservice.model.IdempotencyRecord;
+import org.example.reservationservice.model.ReservationRequest;
+import org.example.reservationservice.model.ReservationStatus;
+import org.example.reservationservice.model.ReservationView;
+import org.example.reservationservice.repository.IdempotencyRecordRepository;
+import org.example.reservationservice.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    @Mock
+    private ReservationRepository reservationRepository;
+    private IdempotencyService underTest;
+    private final ReservationRequest request = new ReservationRequest(null, "firstName", "lastName", "email", "123123123",
+            LocalDateTime.of(2024, 10, 8, 20, 0));
+
+    @BeforeEach
+    void setUp() {
+        underTest = new IdempotencyService(idempotencyRecordRepository, reservationRepository, 100, Duration.ofHours(24));
+    }
+
+    @Test
+    void Submit_KeyAlreadyRecorded_ShouldReplayFromMemoryWithoutRunningAction() {
+        ReservationView reservation = view(1L);
+        underTest.record("key-1", request, reservation);
+
+        ReservationView actual = underTest.submit("key-1", request, () -> {
+            throw new AssertionError("action should not run");
+        });
+
+        assertThat(actual).isSameAs(reservation);
+        verify(idempotencyRecordRepository, never()).findByIdempotencyKey(any());
+    }
+
+    @Test
+    void Submit_KeyOnlyInDatabase_ShouldReplayStoredReservation() {
+        ReservationView reservation = view(1L);
+        given(idempotencyRecordRepository.findByIdempotencyKey("key-1")).willReturn(Optional.of(
+                record(LocalDateTime.now().minusMinutes(5))));
+        given(reservationRepository.findViewById(1L)).willReturn(Optional.of(reservation));
+
+        ReservationView actual = underTest.submit("key-1", request, () -> {
+            throw new AssertionError("action should not run");
+        });
+
+        assertThat(actual).isSameAs(reservation);
+    }
+
+    @Test
+    void Submit_ConcurrentSubmissionWonRace_ShouldReplayWinningReservation() {
+        ReservationView reservation = view(1L);
+        given(idempotencyRecordRepository.findByIdempotencyKey("key-1")).willReturn(
+                Optional.empty(),
+                Optional.of(record(LocalDateTime.now())));
+        given(reservationRepository.findViewById(1L)).willReturn(Optional.of(reservation));
+
+        ReservationView actual = underTest.submit("key-1", request, () -> {
+            throw new DataIntegrityViolationException("duplicate key");
+        });
+
+        assertThat(actual).isSameAs(reservation);
+    }
+
+    @Test
+    void Submit_KeyTooLong_ShouldThrowReservationException() {
+        assertThatThrownBy(() -> underTest.submit("k".repeat(65), request, () -> null))
+                .isInstanceOf(ReservationException.class)
+                .hasMessage("wrong idempotency key");
+    }
+
+    @Test
+    void Submit_ConcurrentSubmissionNotCommittedYet_ShouldThrowConflict() {
+        given(idempotencyRecordRepository.findByIdempotencyKey("key-1")).willReturn(Optional.empty());
+
+        assertThatThrownBy(() -> underTest.submit("key-1", request, () -> {
+            throw new DataIntegrityViolationException("duplicate key");
+        }))
+                .isInstanceOf(ReservationConflictException.class)
+                .hasMessage("request with this idempotency key is in progress, retry later");
+    }
+
+    @Test
+    void Submit_KeyRecordedForOtherRequest_ShouldThrowMismatchWithoutRunningAction() {
+        underTest.record("key-1", request, view(1L));
+        ReservationRequest otherRequest = new ReservationRequest(null, "firstName", "lastName", "email", "123123123",
+                request.timeStart().plusHours(1));
+
+        assertThatThrownBy(() -> underTest.submit("key-1", otherRequest, () -> {
+            throw new AssertionError("action should not run");
+        }))
+                .isInstanceOf(IdempotencyKeyMismatchException.class)
+                .hasMessage("idempotency key was already used for a different request");
+    }
+
+    @Test
+    void Submit_KeyInDatabaseForOtherRequest_ShouldThrowMismatch() {
+        IdempotencyRecord stored = record(LocalDateTime.now());
+        stored.setRequestHash("0".repeat(64));
+        given(idempotencyRecordRepository.findByIdempotencyKey("key-1")).willReturn(Optional.of(stored));
+
+        assertThatThrownBy(() -> underTest.submit("key-1", request, () -> null))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+        verify(reservationRepository, never()).findViewById(any());
+    }
+
+    private IdempotencyRecord record(LocalDateTime createdAt) {
+        return new IdempotencyRecord(1L, "key-1", IdempotencyService.requestHash(request), 1L, createdAt);
+    }
+
+    private static ReservationView view(Long id) {
+        return new ReservationView(id, 1L, "firstName", "lastName", "email", "123123123", ReservationStatus.PENDING, 1L, null, null);
+    }
+}
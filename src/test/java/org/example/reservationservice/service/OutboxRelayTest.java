@@ -0,0 +1,136 @@
+package org.example.reservationservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.reservationservice.model.OutboxMessage;
+import org.example.reservationservice.model.ReservationStatus;
+import org.example.reservationservice.repository.OutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+    private static final String UNREACHABLE = "unreachable";
+    private static final int MAX_ATTEMPTS = 40;
+
+    @Mock
+    private OutboxRepository outboxRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private final List<OutboxMessage> sent = new ArrayList<>();
+    private final List<LocalDateTime> nextAttemptsWhenSent = new ArrayList<>();
+    private OutboxRelay underTest;
+
+    @BeforeEach
+    void setUp() {
+        NotificationSender notificationSender = message -> {
+            nextAttemptsWhenSent.add(message.getNextAttemptAt());
+            if(UNREACHABLE.equals(message.getEmail())) {
+                throw new IllegalStateException("sender unavailable");
+            }
+            sent.add(message);
+        };
+        underTest = new OutboxRelay(outboxRepository, notificationSender, transactionManager, new SimpleMeterRegistry(),
+                Duration.ofMinutes(5), Duration.ofSeconds(5), Duration.ofMinutes(1), MAX_ATTEMPTS);
+    }
+
+    @Test
+    void RelayBatch_MessagesDue_ShouldClaimThemBeforeSendingOutsideTheTransaction() {
+        OutboxMessage message = message(1L, "email");
+        given(outboxRepository.lockDueMessages(any(), any(Limit.class))).willReturn(List.of(message));
+        LocalDateTime before = LocalDateTime.now();
+
+        underTest.relayBatch(10);
+
+        assertThat(nextAttemptsWhenSent).singleElement().satisfies(nextAttemptAt ->
+                assertThat(nextAttemptAt).isAfterOrEqualTo(before.plusMinutes(5)));
+        InOrder inOrder = inOrder(transactionManager, outboxRepository);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(outboxRepository).lockDueMessages(any(), any(Limit.class));
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(outboxRepository).deleteAllByIdInBatch(List.of(1L));
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void RelayBatch_SenderFailsForOneMessage_ShouldDeleteDeliveredAndRescheduleFailed() {
+        OutboxMessage delivered = message(1L, "email");
+        OutboxMessage failed = message(2L, UNREACHABLE);
+        failed.setAttempts(1);
+        given(outboxRepository.lockDueMessages(any(), any(Limit.class))).willReturn(List.of(delivered, failed));
+        LocalDateTime before = LocalDateTime.now();
+
+        int actual = underTest.relayBatch(10);
+
+        assertThat(actual).isEqualTo(2);
+        assertThat(sent).containsExactly(delivered);
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(outboxRepository).saveAll(List.of(failed));
+        assertThat(failed.getAttempts()).isEqualTo(2);
+        assertThat(failed.getNextAttemptAt()).isBetween(before.plusSeconds(10), LocalDateTime.now().plusSeconds(10));
+    }
+
+    @Test
+    void RelayBatch_ManyFailedAttempts_ShouldCapRetryBackoff() {
+        OutboxMessage failed = message(1L, UNREACHABLE);
+        failed.setAttempts(30);
+        given(outboxRepository.lockDueMessages(any(), any(Limit.class))).willReturn(List.of(failed));
+        LocalDateTime before = LocalDateTime.now();
+
+        underTest.relayBatch(10);
+
+        assertThat(failed.getNextAttemptAt()).isBetween(before.plusMinutes(1), LocalDateTime.now().plusMinutes(1));
+    }
+
+    @Test
+    void RelayBatch_LastAttemptFails_ShouldParkMessageAsFailed() {
+        OutboxMessage failed = message(1L, UNREACHABLE);
+        failed.setAttempts(MAX_ATTEMPTS - 1);
+        given(outboxRepository.lockDueMessages(any(), any(Limit.class))).willReturn(List.of(failed));
+
+        underTest.relayBatch(10);
+
+        assertThat(failed.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+        assertThat(failed.getNextAttemptAt()).isNull();
+        assertThat(failed.getFailedAt()).isNotNull();
+        verify(outboxRepository).saveAll(List.of(failed));
+        verify(outboxRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void RelayBatch_NothingDue_ShouldNotOpenSecondTransaction() {
+        given(outboxRepository.lockDueMessages(any(), any(Limit.class))).willReturn(List.of());
+
+        assertThat(underTest.relayBatch(10)).isZero();
+        verify(transactionManager).getTransaction(any());
+        verify(outboxRepository, never()).saveAll(any());
+        verify(outboxRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    private static OutboxMessage message(long reservationId, String email) {
+        return OutboxMessage.builder()
+                .id(reservationId)
+                .reservationId(reservationId)
+                .status(ReservationStatus.ACCEPTED)
+                .email(email)
+                .build();
+    }
+}
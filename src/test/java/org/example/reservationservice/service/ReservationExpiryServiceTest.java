@@ -0,0 +1,158 @@
+package org.example.reservationservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.reservationservice.model.OutboxMessage;
+import org.example.reservationservice.model.PendingDeadline;
+import org.example.reservationservice.model.Reservation;
+import org.example.reservationservice.model.ReservationStatus;
+import org.example.reservationservice.repository.OutboxRepository;
+import org.example.reservationservice.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationExpiryServiceTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 10, 8, 12, 0);
+
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private OutboxRepository outboxRepository;
+    private PendingExpiryQueue pendingExpiryQueue;
+    private MeterRegistry meterRegistry;
+    private ReservationExpiryService underTest;
+
+    @BeforeEach
+    void setUp() {
+        pendingExpiryQueue = new PendingExpiryQueue();
+        meterRegistry = new SimpleMeterRegistry();
+        underTest = new ReservationExpiryService(reservationRepository, outboxRepository, pendingExpiryQueue, new ReservationMetrics(meterRegistry));
+    }
+
+    @Test
+    void ExpireDue_DueAndFutureDeadlines_ShouldExpireOnlyDueReservationsInStartOrder() {
+        pendingExpiryQueue.add(3L, NOW.plusMinutes(1));
+        pendingExpiryQueue.add(2L, NOW);
+        pendingExpiryQueue.add(1L, NOW.minusHours(1));
+        given(reservationRepository.lockAllByIdInAndStatus(List.of(1L, 2L), ReservationStatus.PENDING))
+                .willReturn(List.of(pending(1L)));
+        given(reservationRepository.updateStatusByIdsAndStatus(List.of(1L), ReservationStatus.PENDING, ReservationStatus.EXPIRED))
+                .willReturn(1);
+
+        int actual = underTest.expireDue(NOW, 10);
+
+        assertThat(actual).isEqualTo(2);
+        assertThat(pendingExpiryQueue.size()).isEqualTo(1);
+        assertThat(meterRegistry.counter("reservation.expire").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void ExpireDue_PendingReservationsExpired_ShouldWriteOutboxMessagesForThem() {
+        pendingExpiryQueue.add(1L, NOW.minusMinutes(1));
+        given(reservationRepository.lockAllByIdInAndStatus(List.of(1L), ReservationStatus.PENDING))
+                .willReturn(List.of(pending(1L)));
+        given(reservationRepository.updateStatusByIdsAndStatus(List.of(1L), ReservationStatus.PENDING, ReservationStatus.EXPIRED))
+                .willReturn(1);
+
+        underTest.expireDue(NOW, 10);
+
+        ArgumentCaptor<List<OutboxMessage>> messages = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository).saveAll(messages.capture());
+        assertThat(messages.getValue()).singleElement()
+                .satisfies(message -> {
+                    assertThat(message.getReservationId()).isEqualTo(1L);
+                    assertThat(message.getStatus()).isEqualTo(ReservationStatus.EXPIRED);
+                    assertThat(message.getEmail()).isEqualTo("email");
+                });
+    }
+
+    @Test
+    void ExpireDue_ReservationsModeratedMeanwhile_ShouldNotUpdateOrNotify() {
+        pendingExpiryQueue.add(1L, NOW.minusMinutes(1));
+        given(reservationRepository.lockAllByIdInAndStatus(List.of(1L), ReservationStatus.PENDING)).willReturn(List.of());
+
+        int actual = underTest.expireDue(NOW, 10);
+
+        assertThat(actual).isEqualTo(1);
+        verify(reservationRepository, never()).updateStatusByIdsAndStatus(anyCollection(), any(), any());
+        verify(outboxRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void ReloadStartingBefore_WhenInvoked_ShouldOnlyQueueDeadlinesBeforeHorizon() {
+        given(reservationRepository.findDeadlinesByStatusStartingBefore(ReservationStatus.PENDING, NOW.plusHours(1)))
+                .willReturn(List.of(new PendingDeadline(1L, NOW.plusMinutes(30))));
+
+        underTest.reloadStartingBefore(NOW.plusHours(1));
+
+        assertThat(pendingExpiryQueue.size()).isEqualTo(1);
+        verify(reservationRepository, never()).findDeadlinesByStatus(any());
+    }
+
+    @Test
+    void ExpireDue_MoreDueThanLimit_ShouldExpireOneChunk() {
+        pendingExpiryQueue.addAll(List.of(new PendingDeadline(1L, NOW.minusMinutes(3)),
+                new PendingDeadline(2L, NOW.minusMinutes(2)), new PendingDeadline(3L, NOW.minusMinutes(1))));
+        given(reservationRepository.lockAllByIdInAndStatus(List.of(1L, 2L), ReservationStatus.PENDING))
+                .willReturn(List.of(pending(1L), pending(2L)));
+        given(reservationRepository.updateStatusByIdsAndStatus(List.of(1L, 2L), ReservationStatus.PENDING, ReservationStatus.EXPIRED))
+                .willReturn(2);
+
+        int actual = underTest.expireDue(NOW, 2);
+
+        assertThat(actual).isEqualTo(2);
+        assertThat(pendingExpiryQueue.pollDue(NOW, 10)).extracting(PendingDeadline::reservationId).containsExactly(3L);
+    }
+
+    @Test
+    void ExpireDue_UpdateRolledBack_ShouldRequeueDeadlines() {
+        pendingExpiryQueue.add(1L, NOW.minusMinutes(1));
+        given(reservationRepository.lockAllByIdInAndStatus(List.of(1L), ReservationStatus.PENDING))
+                .willReturn(List.of(pending(1L)));
+        given(reservationRepository.updateStatusByIdsAndStatus(List.of(1L), ReservationStatus.PENDING, ReservationStatus.EXPIRED))
+                .willThrow(new QueryTimeoutException("timeout"));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThatThrownBy(() -> underTest.expireDue(NOW, 10)).isInstanceOf(QueryTimeoutException.class);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(pendingExpiryQueue.pollDue(NOW, 10)).containsExactly(new PendingDeadline(1L, NOW.minusMinutes(1)));
+    }
+
+    @Test
+    void ExpireDue_NothingDue_ShouldNotUpdate() {
+        pendingExpiryQueue.add(1L, NOW.plusMinutes(1));
+
+        int actual = underTest.expireDue(NOW, 10);
+
+        assertThat(actual).isEqualTo(0);
+        verify(reservationRepository, never()).updateStatusByIdsAndStatus(anyCollection(), any(), any());
+    }
+
+    private static Reservation pending(Long id) {
+        return Reservation.builder().id(id).status(ReservationStatus.PENDING).email("email").build();
+    }
+}
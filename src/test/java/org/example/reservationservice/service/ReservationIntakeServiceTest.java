@@ -0,0 +1,136 @@
+package org.example.reservationservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.reservationservice.config.exception.IdempotencyKeyMismatchException;
+import org.example.reservationservice.config.exception.IntakeQueueFullException;
+import org.example.reservationservice.config.exception.IntakeUnavailableException;
+import org.example.reservationservice.config.exception.ScheduleException;
+import org.example.reservationservice.model.IntakeStatus;
+import org.example.reservationservice.model.IntakeTicket;
+import org.example.reservationservice.model.Reservation;
+import org.example.reservationservice.model.ReservationRequest;
+import org.example.reservationservice.model.SlotAvailability;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationIntakeServiceTest {
+    private static final long RESOURCE_ID = 1L;
+    private static final LocalDateTime TIME_START = LocalDateTime.of(2024, 10, 1, 10, 0);
+
+    @Mock
+    private ReservationService reservationService;
+    @Mock
+    private IdempotencyService idempotencyService;
+    private ReservationIntakeService underTest;
+
+    @BeforeEach
+    void setUp() {
+        SlotAvailabilityIndex slotAvailabilityIndex = new SlotAvailabilityIndex();
+        slotAvailabilityIndex.put(new SlotAvailability(1L, RESOURCE_ID, TIME_START, true));
+        underTest = new ReservationIntakeService(reservationService, idempotencyService, slotAvailabilityIndex,
+                new SimpleMeterRegistry(), true, 2, 10, Duration.ofSeconds(3), Duration.ofHours(1), writer -> new Thread(() -> { }));
+        underTest.start();
+    }
+
+    @Test
+    void Submit_Stopped_ShouldThrowWithRetryAfter() {
+        underTest.stop();
+
+        assertThatThrownBy(() -> underTest.submit(request(TIME_START), null))
+                .isInstanceOfSatisfying(IntakeUnavailableException.class,
+                        ex -> assertThat(ex.getRetryAfterSeconds()).isEqualTo(3));
+    }
+
+    @Test
+    void Submit_VisibleSlot_ShouldQueueWithoutTouchingDatabase() {
+        IntakeTicket actual = underTest.submit(request(TIME_START), null);
+
+        assertThat(actual.status()).isEqualTo(IntakeStatus.QUEUED);
+        assertThat(underTest.findTicket(actual.trackingId())).isEqualTo(actual);
+        verify(reservationService, never()).saveIntakeBatch(anyList());
+    }
+
+    @Test
+    void Submit_SlotNotVisible_ShouldThrowScheduleException() {
+        assertThatThrownBy(() -> underTest.submit(request(TIME_START.plusHours(1)), null))
+                .isInstanceOf(ScheduleException.class)
+                .hasMessage("incorrect schedule slot");
+    }
+
+    @Test
+    void Submit_QueueFull_ShouldThrowWithRetryAfter() {
+        underTest.submit(request(TIME_START), null);
+        underTest.submit(request(TIME_START), null);
+
+        assertThatThrownBy(() -> underTest.submit(request(TIME_START), null))
+                .isInstanceOfSatisfying(IntakeQueueFullException.class,
+                        ex -> assertThat(ex.getRetryAfterSeconds()).isEqualTo(3));
+    }
+
+    @Test
+    void Submit_SameIdempotencyKeyWhileQueued_ShouldReturnSameTicket() {
+        IntakeTicket first = underTest.submit(request(TIME_START), "key-1");
+
+        IntakeTicket actual = underTest.submit(request(TIME_START), "key-1");
+
+        assertThat(actual).isEqualTo(first);
+    }
+
+    @Test
+    void Submit_SameIdempotencyKeyForOtherRequestWhileQueued_ShouldThrowMismatch() {
+        underTest.submit(request(TIME_START), "key-1");
+
+        assertThatThrownBy(() -> underTest.submit(request(TIME_START.plusHours(1)), "key-1"))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+    }
+
+    @Test
+    void Drain_QueuedIntakes_ShouldStoreThemInOneBatch() throws InterruptedException {
+        IntakeTicket first = underTest.submit(request(TIME_START), null);
+        IntakeTicket second = underTest.submit(request(TIME_START), null);
+        given(reservationService.saveIntakeBatch(anyList())).willReturn(Map.of(
+                first.trackingId(), Reservation.builder().id(100L).build(),
+                second.trackingId(), Reservation.builder().id(101L).build()));
+
+        int actual = underTest.drain(Duration.ZERO);
+
+        assertThat(actual).isEqualTo(2);
+        assertThat(underTest.findTicket(first.trackingId()))
+                .isEqualTo(new IntakeTicket(first.trackingId(), IntakeStatus.STORED, 100L, null));
+        assertThat(underTest.findTicket(second.trackingId()).reservationId()).isEqualTo(101L);
+    }
+
+    @Test
+    void Drain_BatchFails_ShouldFallBackToSingleWrites() throws InterruptedException {
+        ReservationRequest request = request(TIME_START);
+        IntakeTicket ticket = underTest.submit(request, null);
+        given(reservationService.saveIntakeBatch(anyList())).willThrow(new DataAccessResourceFailureException("down"));
+        given(reservationService.saveReservation(request)).willThrow(new ScheduleException("incorrect schedule slot"));
+
+        underTest.drain(Duration.ZERO);
+
+        assertThat(underTest.findTicket(ticket.trackingId()))
+                .isEqualTo(new IntakeTicket(ticket.trackingId(), IntakeStatus.FAILED, null, "incorrect schedule slot"));
+    }
+
+    private ReservationRequest request(LocalDateTime timeStart) {
+        return new ReservationRequest(null, "John", "Doe", "john@example.com", "123456789", timeStart);
+    }
+}
@@ -1,11 +1,24 @@
 package org.example.reservationservice.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.reservationservice.config.exception.ReservationConflictException;
 import org.example.reservationservice.config.exception.ReservationException;
 import org.example.reservationservice.config.exception.ScheduleException;
+import org.example.reservationservice.model.CursorPage;
+import org.example.reservationservice.model.OutboxMessage;
 import org.example.reservationservice.model.Reservation;
+import org.example.reservationservice.model.ReservationBatchItem;
+import org.example.reservationservice.model.ReservationBatchOutcome;
+import org.example.reservationservice.model.ReservationBatchResult;
+import org.example.reservationservice.model.ReservationDecision;
 import org.example.reservationservice.model.ReservationRequest;
 import org.example.reservationservice.model.ReservationStatus;
+import org.example.reservationservice.model.ReservationView;
 import org.example.reservationservice.model.ScheduleSlot;
+import org.example.reservationservice.model.SlotAvailability;
+import org.example.reservationservice.repository.OutboxRepository;
+import org.example.reservationservice.repository.ReservationArchiveRepository;
 import org.example.reservationservice.repository.ReservationRepository;
 import org.example.reservationservice.repository.ScheduleRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,73 +27,123 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willReturn;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class ReservationServiceTest {
+    private static final long RESOURCE_ID = ScheduleSlot.DEFAULT_RESOURCE_ID;
+
     @Mock
     private ReservationRepository reservationRepository;
     @Mock
+    private ReservationArchiveRepository reservationArchiveRepository;
+    @Mock
     private ScheduleRepository scheduleRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private IdempotencyService idempotencyService;
+    @Mock
+    private OutboxRepository outboxRepository;
+    private SlotAvailabilityIndex slotAvailabilityIndex;
+    private AcceptedReservationIndex acceptedReservationIndex;
+    private PendingExpiryQueue pendingExpiryQueue;
+    private MeterRegistry meterRegistry;
     private ReservationService underTest;
 
     @BeforeEach
     void setUp() {
-        underTest = new ReservationService(reservationRepository, scheduleRepository);
+        slotAvailabilityIndex = new SlotAvailabilityIndex();
+        acceptedReservationIndex = new AcceptedReservationIndex();
+        pendingExpiryQueue = new PendingExpiryQueue();
+        meterRegistry = new SimpleMeterRegistry();
+        underTest = new ReservationService(reservationRepository, reservationArchiveRepository, scheduleRepository, slotAvailabilityIndex,
+                acceptedReservationIndex, eventPublisher, new ReservationMetrics(meterRegistry), idempotencyService,
+                outboxRepository, pendingExpiryQueue);
+        lenient().when(reservationRepository.save(any())).then(invocation -> withId(invocation.getArgument(0)));
     }
 
     @Test
     void FindAllByStatus_InvokedWithCorrectStatus_ShouldReturnReservationsWithCorrectStatus() {
-        Reservation reservationAccepted =
-                Reservation.builder().status(ReservationStatus.ACCEPTED).build();
-        Reservation reservationPending =
-                Reservation.builder().status(ReservationStatus.PENDING).build();
-        given(reservationRepository.findAll()).willReturn(List.of(reservationAccepted, reservationPending));
+        ReservationView reservationAccepted = view(1L, ReservationStatus.ACCEPTED);
+        given(reservationRepository.findViewsByStatusAndIdGreaterThan(ReservationStatus.ACCEPTED, 0L, Limit.of(11)))
+                .willReturn(List.of(reservationAccepted));
 
-        List<Reservation> actual = underTest.findAllByStatus("ACCEPTED");
+        CursorPage<ReservationView> actual = underTest.findAllByStatus("ACCEPTED", null, 10);
 
-        assertThat(actual).hasSize(1).containsExactly(reservationAccepted);
+        assertThat(actual.content()).hasSize(1).containsExactly(reservationAccepted);
+        assertThat(actual.nextCursor()).isNull();
+    }
+
+    @Test
+    void FindAllByStatus_MoreReservationsThanPageSize_ShouldReturnNextCursor() {
+        ReservationView reservation1 = view(3L, ReservationStatus.PENDING);
+        ReservationView reservation2 = view(5L, ReservationStatus.PENDING);
+        ReservationView reservation3 = view(8L, ReservationStatus.PENDING);
+        given(reservationRepository.findViewsByStatusAndIdGreaterThan(ReservationStatus.PENDING, 2L, Limit.of(3)))
+                .willReturn(List.of(reservation1, reservation2, reservation3));
+
+        CursorPage<ReservationView> actual = underTest.findAllByStatus("PENDING", 2L, 2);
+
+        assertThat(actual.content()).containsExactly(reservation1, reservation2);
+        assertThat(actual.nextCursor()).isEqualTo(5L);
     }
 
     @Test
     void FindAllByStatus_InvokedWithIncorrectStatus_ShouldThrowReservationException() {
-        assertThatThrownBy(() -> underTest.findAllByStatus("wrongStatus"))
+        assertThatThrownBy(() -> underTest.findAllByStatus("wrongStatus", null, null))
                 .isInstanceOf(ReservationException.class)
                 .hasMessage("wrong status");
-        verify(reservationRepository, never()).findAll();
+        verify(reservationRepository, never()).findViewsByStatusAndIdGreaterThan(any(), any(), any());
+    }
+
+    @Test
+    void FindAllByStatus_InvokedWithIncorrectPageSize_ShouldThrowReservationException() {
+        assertThatThrownBy(() -> underTest.findAllByStatus("PENDING", null, 0))
+                .isInstanceOf(ReservationException.class)
+                .hasMessage("wrong page size");
     }
 
     @Test
-    void FindAll_WhenInvoked_ShouldCallFindAllInRepo() {
-        underTest.findAll();
+    void FindAll_WhenInvoked_ShouldCallKeysetQueryInRepo() {
+        underTest.findAll(null, null);
 
-        verify(reservationRepository).findAll();
+        verify(reservationRepository).findViewsByIdGreaterThan(0L, Limit.of(51));
     }
 
     @Test
     void SaveReservation_CorrectRequest_ShouldCallSaveInRepoAndReturnReservation() {
         LocalDateTime date = LocalDateTime.of(2024, 10,8,20,0);
         ReservationRequest request = new ReservationRequest(
+                null,
                 "firstName",
                 "lastName",
                 "email",
                 "123123123",
                 date);
         ScheduleSlot scheduleSlot = ScheduleSlot.builder()
+                .id(1L)
                 .isVisible(true)
                 .timeStart(date)
                 .build();
-        given(scheduleRepository.findByTimeStart(date)).willReturn(Optional.of(scheduleSlot));
+        slotAvailabilityIndex.put(new SlotAvailability(1L, RESOURCE_ID, date, true));
+        given(scheduleRepository.getReferenceById(1L)).willReturn(scheduleSlot);
 
 
         underTest.saveReservation(request);
@@ -96,38 +159,72 @@ class ReservationServiceTest {
         assertThat(actualReservation.getPhoneNumber()).isEqualTo(request.phoneNumber());
         assertThat(actualReservation.getEmail()).isEqualTo(request.email());
         assertThat(actualReservation.getStatus()).isEqualTo(ReservationStatus.PENDING);
+        assertThat(pendingExpiryQueue.size()).isEqualTo(1);
+    }
+
+    @Test
+    void SaveReservation_WithIdempotencyKey_ShouldRecordKeyForSavedReservation() {
+        LocalDateTime date = LocalDateTime.of(2024, 10,8,20,0);
+        ReservationRequest request = new ReservationRequest(null, "firstName", "lastName", "email", "123123123", date);
+        Reservation saved = Reservation.builder().id(5L).status(ReservationStatus.PENDING).build();
+        slotAvailabilityIndex.put(new SlotAvailability(1L, RESOURCE_ID, date, true));
+        willReturn(saved).given(reservationRepository).save(any());
+
+        underTest.saveReservation(request, "key-1");
+
+        verify(idempotencyService).record("key-1", request, ReservationView.of(saved));
+    }
+
+    @Test
+    void SaveIntakeBatch_MixedSlots_ShouldSaveOnlyVisibleOnesInOneCall() {
+        LocalDateTime date = LocalDateTime.of(2024, 10,8,20,0);
+        slotAvailabilityIndex.put(new SlotAvailability(1L, RESOURCE_ID, date, true));
+        List<ReservationIntake> intakes = List.of(
+                new ReservationIntake("t-1", new ReservationRequest(null, "firstName", "lastName", "email", "123123123", date), "key-1"),
+                new ReservationIntake("t-2", new ReservationRequest(null, "firstName", "lastName", "email", "123123123", date.plusHours(1)), null));
+        given(reservationRepository.saveAll(any())).willAnswer(invocation -> {
+            Collection<Reservation> reservations = invocation.getArgument(0);
+            reservations.forEach(ReservationServiceTest::withId);
+            return List.copyOf(reservations);
+        });
+
+        Map<String, Reservation> actual = underTest.saveIntakeBatch(intakes);
+
+        assertThat(actual).containsOnlyKeys("t-1");
+        verify(reservationRepository).saveAll(any());
+        verify(idempotencyService).record("key-1", intakes.get(0).request(), ReservationView.of(actual.get("t-1")));
+        assertThat(meterRegistry.get("reservation.slot.lookup.misses").counter().count()).isEqualTo(1.0);
+        assertThat(pendingExpiryQueue.size()).isEqualTo(1);
     }
 
     @Test
     void SaveReservation_ScheduleSlotIsEmpty_ShouldThrowScheduleException() {
         ReservationRequest request = new ReservationRequest(
+                null,
                 "firstName",
                 "lastName",
                 "email",
                 "123123123",
                 LocalDateTime.of(2024, 10,8,20,0));
-        given(scheduleRepository.findByTimeStart(any())).willReturn(Optional.empty());
 
         assertThatThrownBy(() -> underTest.saveReservation(request))
                 .isInstanceOf(ScheduleException.class)
                 .hasMessage("incorrect schedule slot");
         verify(reservationRepository, never()).save(any());
+        assertThat(meterRegistry.counter("reservation.slot.lookup.misses").count()).isEqualTo(1);
     }
 
     @Test
     void SaveReservation_ScheduleSlotIsNotVisible_ShouldThrowScheduleException() {
         LocalDateTime date = LocalDateTime.of(2024, 10,8,20,0);
         ReservationRequest request = new ReservationRequest(
+                null,
                 "firstName",
                 "lastName",
                 "email",
                 "123123123",
                 date);
-        ScheduleSlot scheduleSlot = ScheduleSlot.builder()
-                .isVisible(false)
-                .timeStart(date)
-                .build();
-        given(scheduleRepository.findByTimeStart(any())).willReturn(Optional.of(scheduleSlot));
+        slotAvailabilityIndex.put(new SlotAvailability(1L, RESOURCE_ID, date, false));
 
         assertThatThrownBy(() -> underTest.saveReservation(request))
                 .isInstanceOf(ScheduleException.class)
@@ -151,8 +248,7 @@ class ReservationServiceTest {
                 .email("email")
                 .phoneNumber("123123123")
                 .build();
-        given(reservationRepository.findById(anyLong())).willReturn(Optional.of(reservation));
-        given(scheduleRepository.findScheduleSlotsByTimeStartBetween(any(), any())).willReturn(anyList());
+        given(reservationRepository.findWithScheduleSlotById(anyLong())).willReturn(Optional.of(reservation));
 
         underTest.acceptReservation(1L, duration);
 
@@ -170,6 +266,79 @@ class ReservationServiceTest {
         assertThat(actualReservation.getPhoneNumber()).isEqualTo(reservation.getPhoneNumber());
     }
 
+    @Test
+    void AcceptReservation_CorrectId_ShouldUpdateAvailabilityIndex() {
+        LocalDateTime date = LocalDateTime.of(2024, 10,8,20,0);
+        ScheduleSlot scheduleSlot = ScheduleSlot.builder()
+                .id(1L)
+                .isVisible(true)
+                .timeStart(date)
+                .build();
+        Reservation reservation = Reservation.builder()
+                .id(1L)
+                .status(ReservationStatus.PENDING)
+                .scheduleSlot(scheduleSlot)
+                .build();
+        slotAvailabilityIndex.put(new SlotAvailability(1L, RESOURCE_ID, date, true));
+        slotAvailabilityIndex.put(new SlotAvailability(2L, RESOURCE_ID, date.plusMinutes(30), true));
+        slotAvailabilityIndex.put(new SlotAvailability(3L, RESOURCE_ID, date.plusMinutes(60), true));
+        given(reservationRepository.findWithScheduleSlotById(anyLong())).willReturn(Optional.of(reservation));
+        given(scheduleRepository.updateVisibilityInRange(RESOURCE_ID, date.plusMinutes(1), date.plusMinutes(60), false)).willReturn(1);
+
+        underTest.acceptReservation(1L, 60);
+
+        assertThat(slotAvailabilityIndex.isVisible(RESOURCE_ID, date)).isFalse();
+        assertThat(slotAvailabilityIndex.contains(RESOURCE_ID, date.plusMinutes(30))).isTrue();
+        assertThat(slotAvailabilityIndex.isVisible(RESOURCE_ID, date.plusMinutes(30))).isFalse();
+        assertThat(slotAvailabilityIndex.isVisible(RESOURCE_ID, date.plusMinutes(60))).isTrue();
+        assertThat(acceptedReservationIndex.overlaps(RESOURCE_ID, date.plusMinutes(59), date.plusMinutes(60))).isTrue();
+        verify(scheduleRepository, never()).deleteAllByResourceIdAndTimeStartBetween(anyLong(), any(), any());
+    }
+
+    @Test
+    void AcceptReservation_OverlapsAcceptedReservation_ShouldThrowWithoutTouchingSlots() {
+        LocalDateTime date = LocalDateTime.of(2024, 10,8,20,0);
+        ScheduleSlot scheduleSlot = ScheduleSlot.builder().id(2L).isVisible(true).timeStart(date.plusMinutes(30)).build();
+        Reservation reservation = Reservation.builder().id(2L).status(ReservationStatus.PENDING).scheduleSlot(scheduleSlot).build();
+        acceptedReservationIndex.tryAdd(RESOURCE_ID, 1L, date, date.plusMinutes(60));
+        given(reservationRepository.findWithScheduleSlotById(2L)).willReturn(Optional.of(reservation));
+
+        assertThatThrownBy(() -> underTest.acceptReservation(2L, 30))
+                .isInstanceOf(ReservationConflictException.class)
+                .hasMessage("reservation conflicts with other reservation");
+
+        verify(scheduleRepository, never()).updateVisibilityInRange(anyLong(), any(), any(), anyBoolean());
+        assertThat(scheduleSlot.isVisible()).isTrue();
+    }
+
+    @Test
+    void AcceptReservation_SameRangeAcceptedOnOtherResource_ShouldAccept() {
+        LocalDateTime date = LocalDateTime.of(2024, 10,8,20,0);
+        ScheduleSlot scheduleSlot = ScheduleSlot.builder().id(2L).resourceId(2L).isVisible(true).timeStart(date).build();
+        Reservation reservation = Reservation.builder().id(2L).status(ReservationStatus.PENDING).scheduleSlot(scheduleSlot).build();
+        acceptedReservationIndex.tryAdd(RESOURCE_ID, 1L, date, date.plusMinutes(60));
+        given(reservationRepository.findWithScheduleSlotById(2L)).willReturn(Optional.of(reservation));
+
+        underTest.acceptReservation(2L, 60);
+
+        assertThat(reservation.getStatus()).isEqualTo(ReservationStatus.ACCEPTED);
+        verify(scheduleRepository).updateVisibilityInRange(2L, date.plusMinutes(1), date.plusMinutes(60), false);
+        verify(eventPublisher).publishEvent(new ScheduleSlotsChangedEvent(2L, date, date.plusMinutes(60)));
+    }
+
+    @Test
+    void AcceptReservation_WrongDuration_ShouldThrowReservationExceptionWithoutTouchingIndex() {
+        assertThatThrownBy(() -> underTest.acceptReservation(1L, 0))
+                .isInstanceOf(ReservationException.class)
+                .hasMessage("wrong duration");
+        assertThatThrownBy(() -> underTest.acceptReservation(1L, null))
+                .isInstanceOf(ReservationException.class)
+                .hasMessage("wrong duration");
+
+        verify(reservationRepository, never()).findWithScheduleSlotById(any());
+        assertThat(acceptedReservationIndex.size()).isZero();
+    }
+
     @Test
     void AcceptReservation_CorrectIdAndWrongStatus_ShouldThrowReservationException() {
         Integer duration = 60;
@@ -186,7 +355,7 @@ class ReservationServiceTest {
                 .email("email")
                 .phoneNumber("123123123")
                 .build();
-        given(reservationRepository.findById(anyLong())).willReturn(Optional.of(reservation));
+        given(reservationRepository.findWithScheduleSlotById(anyLong())).willReturn(Optional.of(reservation));
 
         assertThatThrownBy(() -> underTest.acceptReservation(1L, duration))
                 .isInstanceOf(ReservationException.class)
@@ -211,20 +380,62 @@ class ReservationServiceTest {
                 .email("email")
                 .phoneNumber("123123123")
                 .build();
-        ScheduleSlot scheduleSlotConflicted = ScheduleSlot.builder()
-                .isVisible(false)
-                .timeStart(LocalDateTime.of(2024, 10,8,20,30))
-                .build();
-        given(reservationRepository.findById(anyLong())).willReturn(Optional.of(reservation));
-        given(scheduleRepository.findScheduleSlotsByTimeStartBetween(any(), any())).willReturn(List.of(scheduleSlotConflicted));
+        slotAvailabilityIndex.put(new SlotAvailability(2L, RESOURCE_ID, LocalDateTime.of(2024, 10,8,20,30), false));
+        given(reservationRepository.findWithScheduleSlotById(anyLong())).willReturn(Optional.of(reservation));
 
         assertThatThrownBy(() -> underTest.acceptReservation(1L, duration))
-                .isInstanceOf(ReservationException.class)
+                .isInstanceOf(ReservationConflictException.class)
                 .hasMessage("reservation conflicts with other reservation");
+        assertThat(meterRegistry.counter("reservation.accept", "outcome", "conflict").count()).isEqualTo(1);
 
         verify(reservationRepository, never()).save(any());
     }
 
+    @Test
+    void ModerateReservations_OverlappingAccepts_ShouldAcceptEarlierAndReportConflict() {
+        LocalDateTime date = LocalDateTime.of(2024, 10,8,20,0);
+        ScheduleSlot scheduleSlot1 = ScheduleSlot.builder().id(1L).isVisible(true).timeStart(date).build();
+        ScheduleSlot scheduleSlot2 = ScheduleSlot.builder().id(2L).isVisible(true).timeStart(date.plusMinutes(30)).build();
+        ScheduleSlot scheduleSlot3 = ScheduleSlot.builder().id(3L).isVisible(true).timeStart(date.plusMinutes(60)).build();
+        Reservation reservation1 = Reservation.builder().id(1L).status(ReservationStatus.PENDING).scheduleSlot(scheduleSlot1).build();
+        Reservation reservation2 = Reservation.builder().id(2L).status(ReservationStatus.PENDING).scheduleSlot(scheduleSlot2).build();
+        Reservation reservation3 = Reservation.builder().id(3L).status(ReservationStatus.PENDING).scheduleSlot(scheduleSlot3).build();
+        given(reservationRepository.findAllWithScheduleSlotByIdIn(List.of(2L, 1L, 3L)))
+                .willReturn(List.of(reservation1, reservation2, reservation3));
+        given(scheduleRepository.findScheduleSlotsByResourceIdAndTimeStartBetween(RESOURCE_ID, date, date.plusMinutes(89)))
+                .willReturn(List.of(scheduleSlot1, scheduleSlot2, scheduleSlot3));
+
+        List<ReservationBatchResult> actual = underTest.moderateReservations(List.of(
+                new ReservationBatchItem(2L, ReservationDecision.ACCEPT, 30),
+                new ReservationBatchItem(1L, ReservationDecision.ACCEPT, 60),
+                new ReservationBatchItem(3L, ReservationDecision.ACCEPT, 30)));
+
+        assertThat(actual).extracting(ReservationBatchResult::outcome).containsExactly(
+                ReservationBatchOutcome.CONFLICT, ReservationBatchOutcome.ACCEPTED, ReservationBatchOutcome.ACCEPTED);
+        assertThat(reservation1.getStatus()).isEqualTo(ReservationStatus.ACCEPTED);
+        assertThat(reservation2.getStatus()).isEqualTo(ReservationStatus.PENDING);
+        assertThat(reservation3.getStatus()).isEqualTo(ReservationStatus.ACCEPTED);
+        assertThat(scheduleSlot2.isVisible()).isFalse();
+        assertThat(acceptedReservationIndex.size()).isEqualTo(2);
+        verify(scheduleRepository, never()).deleteAll(any());
+    }
+
+    @Test
+    void ModerateReservations_RejectAndUnknownIds_ShouldReportPerItemResult() {
+        Reservation reservation = Reservation.builder().id(1L).status(ReservationStatus.PENDING).build();
+        given(reservationRepository.findAllWithScheduleSlotByIdIn(List.of(1L, 7L))).willReturn(List.of(reservation));
+
+        List<ReservationBatchResult> actual = underTest.moderateReservations(List.of(
+                new ReservationBatchItem(1L, ReservationDecision.REJECT, null),
+                new ReservationBatchItem(7L, ReservationDecision.ACCEPT, 30)));
+
+        assertThat(actual).containsExactly(
+                new ReservationBatchResult(1L, ReservationBatchOutcome.REJECTED, null),
+                new ReservationBatchResult(7L, ReservationBatchOutcome.NOT_FOUND, "reservation not found"));
+        assertThat(reservation.getStatus()).isEqualTo(ReservationStatus.REJECTED);
+        verify(scheduleRepository, never()).findScheduleSlotsByResourceIdAndTimeStartBetween(anyLong(), any(), any());
+    }
+
     @Test
     void RejectReservation_CorrectId_ShouldRejectReservation() {
         ScheduleSlot scheduleSlot = ScheduleSlot.builder()
@@ -240,7 +451,7 @@ class ReservationServiceTest {
                 .email("email")
                 .phoneNumber("123123123")
                 .build();
-        given(reservationRepository.findById(anyLong())).willReturn(Optional.of(reservation));
+        given(reservationRepository.findWithScheduleSlotById(anyLong())).willReturn(Optional.of(reservation));
 
         underTest.rejectReservation(anyLong());
 
@@ -252,6 +463,27 @@ class ReservationServiceTest {
         assertThat(actualReservation.getStatus()).isEqualTo(ReservationStatus.REJECTED);
     }
 
+    @Test
+    void RejectReservation_CorrectId_ShouldWriteNotificationToOutbox() {
+        Reservation reservation = Reservation.builder()
+                .id(1L)
+                .status(ReservationStatus.PENDING)
+                .email("email")
+                .phoneNumber("123123123")
+                .build();
+        given(reservationRepository.findWithScheduleSlotById(1L)).willReturn(Optional.of(reservation));
+
+        underTest.rejectReservation(1L);
+
+        ArgumentCaptor<OutboxMessage> outboxMessageArgumentCaptor = ArgumentCaptor.forClass(OutboxMessage.class);
+        verify(outboxRepository).save(outboxMessageArgumentCaptor.capture());
+        OutboxMessage actual = outboxMessageArgumentCaptor.getValue();
+        assertThat(actual.getReservationId()).isEqualTo(1L);
+        assertThat(actual.getStatus()).isEqualTo(ReservationStatus.REJECTED);
+        assertThat(actual.getEmail()).isEqualTo("email");
+        assertThat(actual.getPhoneNumber()).isEqualTo("123123123");
+    }
+
     @Test
     void RejectReservation_CorrectIdButWrongStatus_ShouldThrowReservationException() {
         Reservation reservation = Reservation.builder()
@@ -263,7 +495,7 @@ class ReservationServiceTest {
                 .email("email")
                 .phoneNumber("123123123")
                 .build();
-        given(reservationRepository.findById(anyLong())).willReturn(Optional.of(reservation));
+        given(reservationRepository.findWithScheduleSlotById(anyLong())).willReturn(Optional.of(reservation));
 
         assertThatThrownBy(() -> underTest.rejectReservation(anyLong()))
                 .isInstanceOf(ReservationException.class)
@@ -271,4 +503,51 @@ class ReservationServiceTest {
 
         verify(reservationRepository, never()).save(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void CancelReservation_AcceptedReservation_ShouldFreeItsTimeRange() {
+        LocalDateTime date = LocalDateTime.of(2024, 10,8,20,0);
+        ScheduleSlot scheduleSlot = ScheduleSlot.builder().id(1L).isVisible(false).timeStart(date).build();
+        Reservation reservation = Reservation.builder()
+                .id(1L)
+                .status(ReservationStatus.ACCEPTED)
+                .durationInMinutes(60)
+                .scheduleSlot(scheduleSlot)
+                .build();
+        slotAvailabilityIndex.put(new SlotAvailability(1L, RESOURCE_ID, date, false));
+        slotAvailabilityIndex.put(new SlotAvailability(2L, RESOURCE_ID, date.plusMinutes(30), false));
+        acceptedReservationIndex.tryAdd(RESOURCE_ID, 1L, date, date.plusMinutes(60));
+        given(reservationRepository.findWithScheduleSlotById(1L)).willReturn(Optional.of(reservation));
+
+        underTest.cancelReservation(1L);
+
+        assertThat(reservation.getStatus()).isEqualTo(ReservationStatus.CANCELLED);
+        assertThat(scheduleSlot.isVisible()).isTrue();
+        assertThat(slotAvailabilityIndex.isVisible(RESOURCE_ID, date.plusMinutes(30))).isTrue();
+        assertThat(acceptedReservationIndex.size()).isZero();
+        verify(scheduleRepository).updateVisibilityInRange(RESOURCE_ID, date.plusMinutes(1), date.plusMinutes(60), true);
+    }
+
+    @Test
+    void CancelReservation_RejectedReservation_ShouldThrowReservationException() {
+        Reservation reservation = Reservation.builder().id(1L).status(ReservationStatus.REJECTED).build();
+        given(reservationRepository.findWithScheduleSlotById(1L)).willReturn(Optional.of(reservation));
+
+        assertThatThrownBy(() -> underTest.cancelReservation(1L))
+                .isInstanceOf(ReservationException.class)
+                .hasMessage("this reservation cannot be cancelled");
+
+        verify(reservationRepository, never()).save(any());
+    }
+
+    private static ReservationView view(Long id, ReservationStatus status) {
+        return new ReservationView(id, RESOURCE_ID, "firstName", "lastName", "email", "123123123", status, null, null, null);
+    }
+
+    private static Reservation withId(Reservation reservation) {
+        if(reservation != null && reservation.getId() == null) {
+            reservation.setId(100L);
+        }
+        return reservation;
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.reservationservice.service;
+
+import org.example.reservationservice.model.ScheduleSlotView;
+import org.example.reservationservice.repository.ScheduleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduleAvailabilityCacheTest {
+    private static final long RESOURCE_ID = 1L;
+    private static final LocalDateTime DAY_START = LocalDateTime.of(2024, 10, 8, 0, 0);
+
+    @Mock
+    private ScheduleRepository scheduleRepository;
+    private ScheduleAvailabilityCache underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new ScheduleAvailabilityCache(scheduleRepository, new ConcurrentMapCacheManager(ScheduleAvailabilityCache.CACHE_NAME));
+    }
+
+    @Test
+    void FindInWindow_DayAlreadyCached_ShouldFilterCachedDayWithoutQuery() {
+        ScheduleSlotView visible = new ScheduleSlotView(1L, DAY_START.plusHours(9), true);
+        ScheduleSlotView hidden = new ScheduleSlotView(2L, DAY_START.plusHours(10), false);
+        ScheduleSlotView late = new ScheduleSlotView(3L, DAY_START.plusHours(18), true);
+        given(scheduleRepository.findViewsInWindow(RESOURCE_ID, DAY_START, DAY_START.plusDays(1), false))
+                .willReturn(List.of(visible, hidden, late));
+
+        List<ScheduleSlotView> first = underTest.findInWindow(RESOURCE_ID, DAY_START, DAY_START.plusHours(12), false);
+        List<ScheduleSlotView> second = underTest.findInWindow(RESOURCE_ID, DAY_START, DAY_START.plusHours(12), true);
+
+        assertThat(first).containsExactly(visible, hidden);
+        assertThat(second).containsExactly(visible);
+        verify(scheduleRepository).findViewsInWindow(RESOURCE_ID, DAY_START, DAY_START.plusDays(1), false);
+    }
+
+    @Test
+    void OnScheduleSlotsChanged_EventForCachedDay_ShouldReloadDayOnNextRead() {
+        given(scheduleRepository.findViewsInWindow(RESOURCE_ID, DAY_START, DAY_START.plusDays(1), false)).willReturn(List.of());
+        underTest.findInWindow(RESOURCE_ID, DAY_START, DAY_START.plusDays(1), false);
+
+        underTest.onScheduleSlotsChanged(new ScheduleSlotsChangedEvent(RESOURCE_ID, DAY_START.plusHours(9), DAY_START.plusHours(10)));
+        underTest.findInWindow(RESOURCE_ID, DAY_START, DAY_START.plusDays(1), false);
+
+        verify(scheduleRepository, times(2)).findViewsInWindow(RESOURCE_ID, DAY_START, DAY_START.plusDays(1), false);
+    }
+
+    @Test
+    void OnScheduleSlotsChanged_EventForOtherResource_ShouldKeepCachedDay() {
+        given(scheduleRepository.findViewsInWindow(RESOURCE_ID, DAY_START, DAY_START.plusDays(1), false)).willReturn(List.of());
+        underTest.findInWindow(RESOURCE_ID, DAY_START, DAY_START.plusDays(1), false);
+
+        underTest.onScheduleSlotsChanged(new ScheduleSlotsChangedEvent(2L, DAY_START.plusHours(9), DAY_START.plusHours(10)));
+        underTest.findInWindow(RESOURCE_ID, DAY_START, DAY_START.plusDays(1), false);
+
+        verify(scheduleRepository).findViewsInWindow(RESOURCE_ID, DAY_START, DAY_START.plusDays(1), false);
+    }
+}
@@ -1,43 +1,67 @@
 package org.example.reservationservice.service;
 
 import org.example.reservationservice.config.exception.ScheduleException;
+import org.example.reservationservice.model.FreeWindow;
+import org.example.reservationservice.model.ScheduleGenerationRequest;
+import org.example.reservationservice.model.ScheduleGenerationResult;
 import org.example.reservationservice.model.ScheduleSlot;
 import org.example.reservationservice.model.ScheduleSlotRequest;
+import org.example.reservationservice.model.SlotAvailability;
 import org.example.reservationservice.repository.ScheduleRepository;
+import org.example.reservationservice.repository.ScheduleSlotArchiveRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ScheduleServiceTest {
+    private static final long RESOURCE_ID = ScheduleSlot.DEFAULT_RESOURCE_ID;
+
 
     @Mock
     private ScheduleRepository scheduleRepository;
+    @Mock
+    private ScheduleSlotArchiveRepository scheduleSlotArchiveRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    private SlotAvailabilityIndex slotAvailabilityIndex;
     private ScheduleService underTest;
 
     @BeforeEach
     void setUp() {
-        underTest = new ScheduleService(scheduleRepository);
+        slotAvailabilityIndex = new SlotAvailabilityIndex();
+        ScheduleAvailabilityCache scheduleAvailabilityCache = new ScheduleAvailabilityCache(
+                scheduleRepository, new ConcurrentMapCacheManager(ScheduleAvailabilityCache.CACHE_NAME));
+        underTest = new ScheduleService(scheduleRepository, scheduleSlotArchiveRepository, slotAvailabilityIndex, scheduleAvailabilityCache, eventPublisher);
     }
 
     @Test
     void SaveSchedule_TimeStartIsNotTaken_ShouldReturnAndCallSaveWithCorrectScheduleSlot() {
         ScheduleSlotRequest request =
-                new ScheduleSlotRequest(LocalDateTime.of(2024, 10,8,20,0));
+                new ScheduleSlotRequest(null, LocalDateTime.of(2024, 10,8,20,0));
 
-        when(scheduleRepository.existsByTimeStart(any())).thenReturn(false);
+        when(scheduleRepository.existsByResourceIdAndTimeStart(anyLong(), any())).thenReturn(false);
+        when(scheduleRepository.save(any())).thenAnswer(invocation -> withId(invocation.getArgument(0)));
         underTest.saveSchedule(request);
 
         ArgumentCaptor<ScheduleSlot> scheduleSlotArgumentCaptor = ArgumentCaptor.forClass(ScheduleSlot.class);
@@ -45,13 +69,14 @@ class ScheduleServiceTest {
 
         assertThat(scheduleSlotArgumentCaptor.getValue().getTimeStart()).isEqualTo(request.timeStart());
         assertThat(scheduleSlotArgumentCaptor.getValue().isVisible()).isEqualTo(true);
+        verify(eventPublisher).publishEvent(new ScheduleSlotsChangedEvent(RESOURCE_ID, request.timeStart(), request.timeStart().plusMinutes(1)));
     }
 
     @Test
     void SaveSchedule_TimeStartIsTaken_ShouldThrowScheduleException() {
         ScheduleSlotRequest request =
-                new ScheduleSlotRequest(LocalDateTime.of(2024, 10,8,20,0));
-        given(scheduleRepository.existsByTimeStart(any())).willReturn(true);
+                new ScheduleSlotRequest(null, LocalDateTime.of(2024, 10,8,20,0));
+        given(scheduleRepository.existsByResourceIdAndTimeStart(anyLong(), any())).willReturn(true);
 
         assertThatThrownBy(() -> underTest.saveSchedule(request))
                 .isInstanceOf(ScheduleException.class)
@@ -60,10 +85,92 @@ class ScheduleServiceTest {
     }
 
     @Test
-    void FindAll_WhenInvoked_ShouldCallFindAllInRepository() {
-        underTest.findAll();
+    void SaveSchedule_TimeStartIsNotTaken_ShouldAddScheduleSlotToAvailabilityIndex() {
+        ScheduleSlotRequest request =
+                new ScheduleSlotRequest(null, LocalDateTime.of(2024, 10,8,20,0));
+        given(scheduleRepository.existsByResourceIdAndTimeStart(anyLong(), any())).willReturn(false);
+        given(scheduleRepository.save(any())).willAnswer(invocation -> withId(invocation.getArgument(0)));
+
+        underTest.saveSchedule(request);
+
+        assertThat(slotAvailabilityIndex.isVisible(RESOURCE_ID, request.timeStart())).isTrue();
+    }
+
+    @Test
+    void SaveSchedule_TimeStartIsInAvailabilityIndex_ShouldThrowScheduleExceptionWithoutQuery() {
+        ScheduleSlotRequest request =
+                new ScheduleSlotRequest(null, LocalDateTime.of(2024, 10,8,20,0));
+        slotAvailabilityIndex.put(new SlotAvailability(1L, RESOURCE_ID, request.timeStart(), true));
+
+        assertThatThrownBy(() -> underTest.saveSchedule(request))
+                .isInstanceOf(ScheduleException.class)
+                .hasMessage("schedule slot already exists");
+        verify(scheduleRepository, never()).existsByResourceIdAndTimeStart(anyLong(), any());
+    }
+
+    @Test
+    void GenerateSchedules_CorrectRequest_ShouldSaveSlotsOnSelectedWeekdaysSkippingExisting() {
+        ScheduleGenerationRequest request = new ScheduleGenerationRequest(
+                null,
+                LocalDate.of(2024, 10, 7),
+                LocalDate.of(2024, 10, 13),
+                Set.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY),
+                LocalTime.of(9, 0),
+                LocalTime.of(10, 0),
+                15);
+        given(scheduleRepository.findTimeStartsBetween(anyLong(), any(), any()))
+                .willReturn(List.of(LocalDateTime.of(2024, 10, 7, 9, 15)));
+        given(scheduleRepository.saveAll(anyList())).willAnswer(invocation -> withIds(invocation.getArgument(0)));
+
+        ScheduleGenerationResult actual = underTest.generateSchedules(request);
+
+        assertThat(actual).isEqualTo(new ScheduleGenerationResult(7, 1));
+        verify(scheduleRepository).findTimeStartsBetween(RESOURCE_ID,
+                LocalDateTime.of(2024, 10, 7, 9, 0), LocalDateTime.of(2024, 10, 9, 9, 45));
+        verify(scheduleRepository, never()).existsByResourceIdAndTimeStart(anyLong(), any());
+        assertThat(slotAvailabilityIndex.size()).isEqualTo(7);
+        assertThat(slotAvailabilityIndex.contains(RESOURCE_ID, LocalDateTime.of(2024, 10, 8, 9, 0))).isFalse();
+    }
 
-        verify(scheduleRepository).findAll();
+    @Test
+    void GenerateSchedules_HourFromIsNotBeforeHourTo_ShouldThrowScheduleException() {
+        ScheduleGenerationRequest request = new ScheduleGenerationRequest(
+                null,
+                LocalDate.of(2024, 10, 7),
+                LocalDate.of(2024, 10, 13),
+                null,
+                LocalTime.of(10, 0),
+                LocalTime.of(10, 0),
+                15);
+
+        assertThatThrownBy(() -> underTest.generateSchedules(request))
+                .isInstanceOf(ScheduleException.class)
+                .hasMessage("incorrect schedule generation request");
+        verify(scheduleRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void FindInWindow_CorrectWindow_ShouldLoadEachDayOfWindowOnce() {
+        LocalDateTime from = LocalDateTime.of(2024, 10,7,0,0);
+        LocalDateTime to = LocalDateTime.of(2024, 10,14,0,0);
+        given(scheduleRepository.findViewsInWindow(anyLong(), any(), any(), anyBoolean())).willReturn(List.of());
+
+        underTest.findInWindow(null, from, to, true);
+        underTest.findInWindow(null, from, to, false);
+
+        verify(scheduleRepository, times(7)).findViewsInWindow(anyLong(), any(), any(), eq(false));
+        verify(scheduleRepository).findViewsInWindow(RESOURCE_ID, from, from.plusDays(1), false);
+    }
+
+    @Test
+    void FindInWindow_WindowTooLong_ShouldThrowScheduleException() {
+        LocalDateTime from = LocalDateTime.of(2024, 10,1,0,0);
+        LocalDateTime to = LocalDateTime.of(2024, 12,1,0,0);
+
+        assertThatThrownBy(() -> underTest.findInWindow(null, from, to, false))
+                .isInstanceOf(ScheduleException.class)
+                .hasMessage("incorrect time window");
+        verify(scheduleRepository, never()).findViewsInWindow(anyLong(), any(), any(), anyBoolean());
     }
 
     @Test
@@ -80,6 +187,7 @@ class ScheduleServiceTest {
         ArgumentCaptor<ScheduleSlot> scheduleSlotArgumentCaptor = ArgumentCaptor.forClass(ScheduleSlot.class);
         verify(scheduleRepository).delete(scheduleSlotArgumentCaptor.capture());
         assertThat(scheduleSlotArgumentCaptor.getValue()).isEqualTo(scheduleSlot);
+        assertThat(slotAvailabilityIndex.contains(RESOURCE_ID, scheduleSlot.getTimeStart())).isFalse();
     }
 
     @Test
@@ -91,4 +199,55 @@ class ScheduleServiceTest {
                 .hasMessage("wrong schedule slot id");
         verify(scheduleRepository, never()).delete(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void FindFreeWindows_ContiguousVisibleSlots_ShouldReturnWindowsOfRequestedDuration() {
+        LocalDateTime timeStart = LocalDateTime.of(2024, 10, 8, 9, 0);
+        slotAvailabilityIndex.rebuild(List.of(
+                new SlotAvailability(1L, RESOURCE_ID, timeStart, true),
+                new SlotAvailability(2L, RESOURCE_ID, timeStart.plusMinutes(30), true),
+                new SlotAvailability(3L, RESOURCE_ID, timeStart.plusMinutes(60), true)));
+
+        List<FreeWindow> actual = underTest.findFreeWindows(null, timeStart, 90, null);
+
+        assertThat(actual).isEqualTo(List.of(new FreeWindow(timeStart, timeStart.plusMinutes(90))));
+        verifyNoInteractions(scheduleRepository);
+    }
+
+    @Test
+    void FindFreeWindows_ThirtyMinuteGridWithGap_ShouldJoinOnlyAdjacentSlots() {
+        LocalDateTime timeStart = LocalDateTime.of(2024, 10, 8, 9, 0);
+        slotAvailabilityIndex.rebuild(List.of(
+                new SlotAvailability(1L, RESOURCE_ID, timeStart, true),
+                new SlotAvailability(2L, RESOURCE_ID, timeStart.plusMinutes(30), true),
+                new SlotAvailability(3L, RESOURCE_ID, timeStart.plusMinutes(60), true),
+                new SlotAvailability(4L, RESOURCE_ID, timeStart.plusMinutes(120), true),
+                new SlotAvailability(5L, RESOURCE_ID, timeStart.plusMinutes(150), true)));
+
+        List<FreeWindow> actual = underTest.findFreeWindows(null, timeStart, 60, null);
+
+        assertThat(actual).isEqualTo(List.of(
+                new FreeWindow(timeStart, timeStart.plusMinutes(60)),
+                new FreeWindow(timeStart.plusMinutes(30), timeStart.plusMinutes(90)),
+                new FreeWindow(timeStart.plusMinutes(120), timeStart.plusMinutes(180))));
+    }
+
+    @Test
+    void FindFreeWindows_TooManyWindowsRequested_ShouldThrowScheduleException() {
+        assertThatThrownBy(() -> underTest.findFreeWindows(null, null, 90, 51))
+                .isInstanceOf(ScheduleException.class)
+                .hasMessage("incorrect free window search");
+    }
+
+    private static ScheduleSlot withId(ScheduleSlot slot) {
+        slot.setId(1L);
+        return slot;
+    }
+
+    private static List<ScheduleSlot> withIds(List<ScheduleSlot> slots) {
+        for(int i = 0; i < slots.size(); i++) {
+            slots.get(i).setId(i + 1L);
+        }
+        return slots;
+    }
+}
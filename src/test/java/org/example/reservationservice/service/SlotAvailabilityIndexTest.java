@@ -0,0 +1,126 @@
+package org.example.reservationservice.service;
+
+import org.example.reservationservice.model.SlotAvailability;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlotAvailabilityIndexTest {
+
+    private static final long RESOURCE_ID = 1L;
+    private static final LocalDateTime DATE = LocalDateTime.of(2024, 10, 8, 20, 0);
+
+    private SlotAvailabilityIndex underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new SlotAvailabilityIndex();
+    }
+
+    @Test
+    void Rebuild_UnsortedSlots_ShouldAnswerLookupsInTimeOrder() {
+        underTest.rebuild(List.of(
+                new SlotAvailability(3L, RESOURCE_ID, DATE.plusMinutes(30), true),
+                new SlotAvailability(1L, RESOURCE_ID, DATE, true),
+                new SlotAvailability(2L, RESOURCE_ID, DATE.plusMinutes(15), false)));
+
+        assertThat(underTest.size()).isEqualTo(3);
+        assertThat(underTest.findVisibleSlotId(RESOURCE_ID, DATE)).hasValue(1L);
+        assertThat(underTest.findVisibleSlotId(RESOURCE_ID, DATE.plusMinutes(15))).isEmpty();
+        assertThat(underTest.findVisibleSlotId(RESOURCE_ID, DATE.plusMinutes(30))).hasValue(3L);
+        assertThat(underTest.contains(RESOURCE_ID, DATE.plusMinutes(45))).isFalse();
+    }
+
+    @Test
+    void AnyInvisibleInRange_InvisibleSlotInsideOrOutsideRange_ShouldRespectHalfOpenBounds() {
+        underTest.put(new SlotAvailability(1L, RESOURCE_ID, DATE, true));
+        underTest.put(new SlotAvailability(2L, RESOURCE_ID, DATE.plusMinutes(60), false));
+
+        assertThat(underTest.anyInvisibleInRange(RESOURCE_ID, DATE, DATE.plusMinutes(60))).isFalse();
+        assertThat(underTest.anyInvisibleInRange(RESOURCE_ID, DATE, DATE.plusMinutes(61))).isTrue();
+    }
+
+    @Test
+    void Put_ManySlotsInReverseOrder_ShouldGrowAndKeepOrder() {
+        for(int i = 2000; i > 0; i--) {
+            underTest.put(new SlotAvailability((long) i, RESOURCE_ID, DATE.plusMinutes(i), true));
+        }
+
+        assertThat(underTest.size()).isEqualTo(2000);
+        assertThat(underTest.findVisibleSlotId(RESOURCE_ID, DATE.plusMinutes(1))).hasValue(1L);
+        assertThat(underTest.findVisibleSlotId(RESOURCE_ID, DATE.plusMinutes(2000))).hasValue(2000L);
+    }
+
+    @Test
+    void RemoveRange_SlotsInsideRange_ShouldRemoveOnlyThoseSlots() {
+        underTest.put(new SlotAvailability(1L, RESOURCE_ID, DATE, true));
+        underTest.put(new SlotAvailability(2L, RESOURCE_ID, DATE.plusMinutes(15), true));
+        underTest.put(new SlotAvailability(3L, RESOURCE_ID, DATE.plusMinutes(30), true));
+
+        underTest.removeRange(RESOURCE_ID, DATE.plusMinutes(1), DATE.plusMinutes(30));
+
+        assertThat(underTest.size()).isEqualTo(2);
+        assertThat(underTest.contains(RESOURCE_ID, DATE.plusMinutes(15))).isFalse();
+        assertThat(underTest.contains(RESOURCE_ID, DATE.plusMinutes(30))).isTrue();
+    }
+
+    @Test
+    void SetVisible_ExistingSlot_ShouldChangeVisibility() {
+        underTest.put(new SlotAvailability(1L, RESOURCE_ID, DATE, true));
+
+        underTest.setVisible(RESOURCE_ID, DATE, false);
+
+        assertThat(underTest.isVisible(RESOURCE_ID, DATE)).isFalse();
+        assertThat(underTest.contains(RESOURCE_ID, DATE)).isTrue();
+    }
+
+    @Test
+    void Put_SameTimeOnDifferentResources_ShouldKeepTimelinesSeparate() {
+        underTest.put(new SlotAvailability(1L, RESOURCE_ID, DATE, true));
+        underTest.put(new SlotAvailability(2L, 2L, DATE, false));
+
+        underTest.setVisible(2L, DATE, true);
+
+        assertThat(underTest.size()).isEqualTo(2);
+        assertThat(underTest.findVisibleSlotId(RESOURCE_ID, DATE)).hasValue(1L);
+        assertThat(underTest.findVisibleSlotId(2L, DATE)).hasValue(2L);
+        assertThat(underTest.contains(3L, DATE)).isFalse();
+    }
+
+    @Test
+    void FindFreeWindowStarts_RunsBrokenByGapAndInvisibleSlot_ShouldReturnStartsCoveringDuration() {
+        underTest.rebuild(freeWindowSlots());
+
+        List<LocalDateTime> actual = underTest.findFreeWindowStarts(RESOURCE_ID, DATE, DATE.plusDays(1), 30, 10);
+
+        assertThat(actual).containsExactly(DATE, DATE.plusMinutes(15), DATE.plusMinutes(60), DATE.plusMinutes(105));
+    }
+
+    @Test
+    void FindFreeWindowStarts_WindowAndLimitGiven_ShouldStopAtHorizonAndLimit() {
+        underTest.rebuild(freeWindowSlots());
+
+        List<LocalDateTime> bounded = underTest.findFreeWindowStarts(RESOURCE_ID, DATE.plusMinutes(10), DATE.plusMinutes(90), 30, 10);
+        List<LocalDateTime> limited = underTest.findFreeWindowStarts(RESOURCE_ID, DATE, DATE.plusDays(1), 30, 1);
+
+        assertThat(bounded).containsExactly(DATE.plusMinutes(15), DATE.plusMinutes(60));
+        assertThat(limited).containsExactly(DATE);
+        assertThat(underTest.findFreeWindowStarts(2L, DATE, DATE.plusDays(1), 30, 10)).isEmpty();
+    }
+
+    private static List<SlotAvailability> freeWindowSlots() {
+        return List.of(
+                new SlotAvailability(1L, RESOURCE_ID, DATE, true),
+                new SlotAvailability(2L, RESOURCE_ID, DATE.plusMinutes(15), true),
+                new SlotAvailability(3L, RESOURCE_ID, DATE.plusMinutes(30), true),
+                new SlotAvailability(4L, RESOURCE_ID, DATE.plusMinutes(45), false),
+                new SlotAvailability(5L, RESOURCE_ID, DATE.plusMinutes(60), true),
+                new SlotAvailability(6L, RESOURCE_ID, DATE.plusMinutes(75), true),
+                new SlotAvailability(7L, RESOURCE_ID, DATE.plusMinutes(105), true),
+                new SlotAvailability(8L, RESOURCE_ID, DATE.plusMinutes(120), true));
+    }
+}
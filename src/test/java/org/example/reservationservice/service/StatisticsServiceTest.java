@@ -0,0 +1,79 @@
+package org.example.reservationservice.service;
+
+import org.example.reservationservice.config.exception.ReservationException;
+import org.example.reservationservice.model.DailyBookedMinutes;
+import org.example.reservationservice.model.DailySlotUsage;
+import org.example.reservationservice.model.PeriodStatistics;
+import org.example.reservationservice.model.ReservationStatistics;
+import org.example.reservationservice.model.ReservationStatus;
+import org.example.reservationservice.model.StatusCount;
+import org.example.reservationservice.repository.ReservationRepository;
+import org.example.reservationservice.repository.ScheduleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class StatisticsServiceTest {
+    private static final long RESOURCE_ID = 1L;
+    private static final LocalDate SUNDAY = LocalDate.of(2024, 10, 6);
+    private static final LocalDate MONDAY = LocalDate.of(2024, 10, 7);
+    private static final LocalDateTime WINDOW_START = SUNDAY.atStartOfDay();
+    private static final LocalDateTime WINDOW_END = MONDAY.plusDays(1).atStartOfDay();
+
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private ScheduleRepository scheduleRepository;
+    private StatisticsService underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new StatisticsService(reservationRepository, scheduleRepository, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void FindStatistics_TwoDaysInDifferentWeeks_ShouldAggregateDaysWeeksAndTotal() {
+        given(reservationRepository.countByStatusInWindow(RESOURCE_ID, WINDOW_START, WINDOW_END))
+                .willReturn(List.of(new StatusCount(ReservationStatus.ACCEPTED, 2L)));
+        given(reservationRepository.sumDurationByDay(ReservationStatus.ACCEPTED, RESOURCE_ID, WINDOW_START, WINDOW_END))
+                .willReturn(List.of(new DailyBookedMinutes(SUNDAY, 60L), new DailyBookedMinutes(MONDAY, 30L)));
+        given(scheduleRepository.findDailyUsage(RESOURCE_ID, WINDOW_START, WINDOW_END))
+                .willReturn(List.of(new DailySlotUsage(SUNDAY, 4L, 4L), new DailySlotUsage(MONDAY, 4L, 2L)));
+
+        ReservationStatistics actual = underTest.findStatistics(null, SUNDAY, MONDAY);
+
+        assertThat(actual.reservationsByStatus()).containsEntry(ReservationStatus.ACCEPTED, 2L).containsEntry(ReservationStatus.PENDING, 0L);
+        assertThat(actual.days()).containsExactly(new PeriodStatistics(SUNDAY, 60, 4, 4, 1.0), new PeriodStatistics(MONDAY, 30, 4, 2, 0.5));
+        assertThat(actual.weeks()).containsExactly(new PeriodStatistics(LocalDate.of(2024, 9, 30), 60, 4, 4, 1.0),
+                new PeriodStatistics(MONDAY, 30, 4, 2, 0.5));
+        assertThat(actual.total()).isEqualTo(new PeriodStatistics(SUNDAY, 90, 8, 6, 0.75));
+    }
+
+    @Test
+    void FindStatistics_SameWindowTwice_ShouldQueryOnce() {
+        underTest.findStatistics(RESOURCE_ID, SUNDAY, MONDAY);
+        underTest.findStatistics(RESOURCE_ID, SUNDAY, MONDAY);
+
+        verify(scheduleRepository).findDailyUsage(RESOURCE_ID, WINDOW_START, WINDOW_END);
+    }
+
+    @Test
+    void FindStatistics_WindowTooLong_ShouldThrowReservationException() {
+        assertThatThrownBy(() -> underTest.findStatistics(RESOURCE_ID, SUNDAY, SUNDAY.plusDays(400)))
+                .isInstanceOf(ReservationException.class)
+                .hasMessage("incorrect time window");
+    }
+}